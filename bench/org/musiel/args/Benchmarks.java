@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks and writes the results in JSON, so that runs can be compared over time.
+ * 
+ * <p>
+ * Usage: {@code Benchmarks [INCLUDE-REGEX [RESULT-FILE]]}, defaulting to all benchmarks and {@code jmh-result.json}.
+ * </p>
+ * 
+ * @author Bagana
+ */
+public class Benchmarks {
+
+	public static void main( final String... args) throws RunnerException {
+		final String include = args.length > 0? args[ 0]: "org\\.musiel\\.args\\..*Benchmark";
+		final String result = args.length > 1? args[ 1]: "jmh-result.json";
+		new Runner( new OptionsBuilder().include( include).resultFormat( ResultFormatType.JSON).result( result).build()).run();
+	}
+}
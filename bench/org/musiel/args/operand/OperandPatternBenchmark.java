@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.operand;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compiles operand patterns of growing complexity, checks them for ambiguity, and matches growing operand lists against them.
+ * 
+ * @author Bagana
+ */
+@ BenchmarkMode( Mode.AverageTime)
+@ OutputTimeUnit( TimeUnit.MICROSECONDS)
+@ Warmup( iterations = 3, time = 1)
+@ Measurement( iterations = 5, time = 1)
+@ Fork( 1)
+public class OperandPatternBenchmark {
+
+	@ State( Scope.Benchmark)
+	public static class PatternState {
+
+		// all unambiguous, and all accept any even number of operands from 30 on
+		@ Param( { "INPUT... OUTPUT", "A ( B C )... D", "HELP | SOURCE ( KEY VALUE )... TARGET",
+				"A B C D E F G H I J K L M N O P Q R S T U V W X Y Z REST..."})
+		public String pattern;
+
+		OperandPattern compiled;
+
+		@ Setup
+		public void setup() {
+			this.compiled = OperandPattern.compile( this.pattern);
+		}
+	}
+
+	@ State( Scope.Benchmark)
+	public static class OperandState {
+
+		@ Param( { "30", "1000", "100000"})
+		public int operandCount;
+
+		final List< String> operands = new ArrayList<>();
+
+		@ Setup
+		public void setup() {
+			for( int index = 0; index < this.operandCount; ++index)
+				this.operands.add( "operand" + index);
+		}
+	}
+
+	@ Benchmark
+	public OperandPattern compile( final PatternState state) {
+		return OperandPattern.compile( state.pattern);
+	}
+
+	@ Benchmark
+	public String[][] findAmbiguityExample( final PatternState state) {
+		return state.compiled.findAmbiguityExample();
+	}
+
+	@ Benchmark
+	public Map< String, List< String>> match( final PatternState pattern, final OperandState operands) throws OperandException {
+		return pattern.compiled.match( operands.operands);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.printer;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.musiel.args.ArgumentPolicy;
+import org.musiel.args.DefaultParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Prints help messages of parsers with large option sets into a discarding stream.
+ * 
+ * @author Bagana
+ */
+@ State( Scope.Benchmark)
+@ BenchmarkMode( Mode.AverageTime)
+@ OutputTimeUnit( TimeUnit.MICROSECONDS)
+@ Warmup( iterations = 3, time = 1)
+@ Measurement( iterations = 5, time = 1)
+@ Fork( 1)
+public class GnuMonoTermPrinterBenchmark {
+
+	@ Param( { "10", "100", "1000"})
+	public int optionCount;
+
+	private DefaultParser parser;
+	private GnuMonoTermPrinter printer;
+
+	@ Setup
+	public void setup( final Blackhole blackhole) {
+		this.parser = new DefaultParser();
+		this.parser.setDescription( "Does something useful with the given operands, according to the options listed below.");
+		for( int index = 0; index < this.optionCount; ++index)
+			this.parser.addOption( "--generated-option-" + index, Arrays.asList( "-" + ( char) ( 'a' + index % 26)), false, index % 2 == 0,
+					index % 3 == 0? ArgumentPolicy.NONE: ArgumentPolicy.REQUIRED, "Description of option number " + index
+							+ ", long enough to be wrapped at least once by the printer at the default margin.", index % 3 == 0? null: "VALUE");
+		this.parser.setOperandPattern( "INPUT... OUTPUT");
+
+		this.printer = new GnuMonoTermPrinter( new PrintStream( new OutputStream() {
+
+			@ Override
+			public void write( final int b) {
+				blackhole.consume( b);
+			}
+
+			@ Override
+			public void write( final byte[] b, final int off, final int len) {
+				blackhole.consume( len);
+			}
+		}));
+	}
+
+	@ Benchmark
+	public void print() {
+		this.printer.print( "command", this.parser, Locale.ROOT);
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.musiel.args.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how building {@link ReflectParser}s, parsing and reading values scale with the number of methods of a model, using models
+ * generated by {@link SizedModels}. {@link #defineAndConstruct()} builds for a model never seen before, paying for the metadata and the
+ * generated implementation, while {@link #construct()} builds for a known one.
+ * 
+ * @author Bagana
+ */
+@ State( Scope.Benchmark)
+@ BenchmarkMode( Mode.AverageTime)
+@ OutputTimeUnit( TimeUnit.MICROSECONDS)
+@ Warmup( iterations = 3, time = 1)
+@ Measurement( iterations = 5, time = 1)
+@ Fork( 1)
+public class ModelSizeBenchmark {
+
+	@ Param( { "10", "100", "500"})
+	public int methodCount;
+
+	private Class< ?> model;
+	private Method[] methods;
+	private String[] args;
+	private ReflectParser< ?> parser;
+	private long modelCount = 0;
+
+	@ Setup
+	public void setup() {
+		this.model = SizedModels.define( this.getModelName(), this.methodCount);
+		this.methods = this.model.getMethods();
+		// every tenth option, so that a parse finds 1, 10 or 50 of them
+		this.args = SizedModels.arguments( this.methodCount, 10);
+		this.parser = ModelSizeBenchmark.newParser( this.model);
+	}
+
+	private String getModelName() {
+		return ModelSizeBenchmark.class.getPackage().getName() + ".SizedModel" + this.methodCount + "$" + this.modelCount++;
+	}
+
+	private static < MODEL>ReflectParser< MODEL> newParser( final Class< MODEL> model) {
+		return new ReflectParser<>( model);
+	}
+
+	@ Benchmark
+	public ReflectParser< ?> construct() {
+		return ModelSizeBenchmark.newParser( this.model);
+	}
+
+	@ Benchmark
+	public ReflectParser< ?> defineAndConstruct() {
+		return ModelSizeBenchmark.newParser( SizedModels.define( this.getModelName(), this.methodCount));
+	}
+
+	@ Benchmark
+	public Result< ?> parse() {
+		return this.parser.parse( this.args);
+	}
+
+	@ Benchmark
+	public void parseAndRead( final Blackhole blackhole) throws ReflectiveOperationException {
+		final Object model = this.parser.parse( this.args).getAccessor();
+		for( final Method method: this.methods)
+			blackhole.consume( method.invoke( model));
+	}
+}
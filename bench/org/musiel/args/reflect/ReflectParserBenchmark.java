@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.musiel.args.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Builds {@link ReflectParser}s for a model using most of the supported value types, parses with them, and reads every value back.
+ * 
+ * @author Bagana
+ */
+@ State( Scope.Benchmark)
+@ BenchmarkMode( Mode.AverageTime)
+@ OutputTimeUnit( TimeUnit.MICROSECONDS)
+@ Warmup( iterations = 3, time = 1)
+@ Measurement( iterations = 5, time = 1)
+@ Fork( 1)
+public class ReflectParserBenchmark {
+
+	public static enum Strategy {
+		FAST, SAFE, PARANOID
+	}
+
+	@ OperandPattern( "INPUT... OUTPUT")
+	public static interface Model {
+
+		@ Option( { "-v", "--verbose"})
+		public boolean verbose();
+
+		public boolean quiet();
+
+		@ Option( { "-l", "--log-level"})
+		@ Default( "3")
+		public int logLevel();
+
+		public Integer threads();
+
+		public long[] offset();
+
+		public String name();
+
+		public String[] tag();
+
+		public Strategy strategy();
+
+		public BigDecimal ratio();
+
+		@ Default( "false")
+		public Boolean dryRun();
+
+		public File directory();
+
+		@ Operands( "INPUT")
+		public File[] inputs();
+
+		@ Operands( "OUTPUT")
+		public File output();
+	}
+
+	private static final String[] ARGS = { "-v", "-l", "5", "--threads=8", "--offset", "1", "--offset", "2", "--offset", "3", "--name",
+			"benchmark", "--tag", "a", "--tag", "b", "--strategy", "SAFE", "--ratio", "0.75", "--directory", "/tmp", "input1", "input2",
+			"input3", "output"};
+
+	private ReflectParser< Model> parser;
+
+	@ Setup
+	public void setup() {
+		this.parser = new ReflectParser<>( Model.class);
+	}
+
+	@ Benchmark
+	public ReflectParser< Model> construct() {
+		return new ReflectParser<>( Model.class);
+	}
+
+	@ Benchmark
+	public Result< Model> parse() {
+		return this.parser.parse( ReflectParserBenchmark.ARGS);
+	}
+
+	@ Benchmark
+	public void parseAndRead( final Blackhole blackhole) {
+		ReflectParserBenchmark.read( this.parser.parse( ReflectParserBenchmark.ARGS).getAccessor(), blackhole);
+	}
+
+	@ Benchmark
+	public void parseStatic( final Blackhole blackhole) {
+		ReflectParserBenchmark.read( ReflectParser.parse( Model.class, ReflectParserBenchmark.ARGS).getAccessor(), blackhole);
+	}
+
+	private static void read( final Model model, final Blackhole blackhole) {
+		blackhole.consume( model.verbose());
+		blackhole.consume( model.quiet());
+		blackhole.consume( model.logLevel());
+		blackhole.consume( model.threads());
+		blackhole.consume( model.offset());
+		blackhole.consume( model.name());
+		blackhole.consume( model.tag());
+		blackhole.consume( model.strategy());
+		blackhole.consume( model.ratio());
+		blackhole.consume( model.dryRun());
+		blackhole.consume( model.directory());
+		blackhole.consume( model.inputs());
+		blackhole.consume( model.output());
+	}
+}
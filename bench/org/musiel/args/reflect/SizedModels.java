@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates model interfaces of any size for benchmarks: method <code>option<i>i</i></code> returns a {@link String} when
+ * <code><i>i</i> % 3 == 0</code>, an <code>int</code> when <code><i>i</i> % 3 == 1</code>, and a <code>boolean</code> otherwise, and
+ * is thus the option <code>--option<i>i</i></code>. Each interface is defined by its own class loader, so it can be collected.
+ * 
+ * @author Bagana
+ */
+class SizedModels {
+
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_INTERFACE = 0x0200;
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final String[] DESCRIPTORS = { "()Ljava/lang/String;", "()I", "()Z"};
+
+	private static final class Loader extends ClassLoader {
+
+		private Loader() {
+			super( SizedModels.class.getClassLoader());
+		}
+
+		private Class< ?> define( final String className, final byte[] bytes) {
+			return this.defineClass( className, bytes, 0, bytes.length);
+		}
+	}
+
+	/**
+	 * @param className
+	 * @param methodCount
+	 * @return a newly defined interface, a different one for each call
+	 */
+	public static Class< ?> define( final String className, final int methodCount) {
+		final byte[] bytes;
+		try {
+			bytes = SizedModels.write( className.replace( '.', '/'), methodCount);
+		} catch( final IOException exception) {
+			throw new AssertionError( exception); // not possible with in-memory streams
+		}
+		return new Loader().define( className, bytes);
+	}
+
+	private static byte[] write( final String internalName, final int methodCount) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream( bytes);
+		out.writeInt( 0xcafebabe);
+		out.writeShort( 0);
+		out.writeShort( 50);
+		// 1: this name, 2: this class, 3: super name, 4: super class, 5..7: descriptors, 8..: method names
+		out.writeShort( 8 + methodCount);
+		SizedModels.writeClass( out, internalName, 1);
+		SizedModels.writeClass( out, "java/lang/Object", 3);
+		for( final String descriptor: SizedModels.DESCRIPTORS)
+			SizedModels.writeUtf8( out, descriptor);
+		for( int index = 0; index < methodCount; ++index)
+			SizedModels.writeUtf8( out, "option" + index);
+		out.writeShort( SizedModels.ACC_PUBLIC | SizedModels.ACC_INTERFACE | SizedModels.ACC_ABSTRACT);
+		out.writeShort( 2);
+		out.writeShort( 4);
+		out.writeShort( 0); // interfaces
+		out.writeShort( 0); // fields
+		out.writeShort( methodCount);
+		for( int index = 0; index < methodCount; ++index) {
+			out.writeShort( SizedModels.ACC_PUBLIC | SizedModels.ACC_ABSTRACT);
+			out.writeShort( 8 + index);
+			out.writeShort( 5 + index % SizedModels.DESCRIPTORS.length);
+			out.writeShort( 0); // attributes
+		}
+		out.writeShort( 0); // attributes
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void writeClass( final DataOutputStream out, final String internalName, final int nameIndex) throws IOException {
+		SizedModels.writeUtf8( out, internalName);
+		out.writeByte( 7); // CONSTANT_Class
+		out.writeShort( nameIndex);
+	}
+
+	private static void writeUtf8( final DataOutputStream out, final String string) throws IOException {
+		out.writeByte( 1); // CONSTANT_Utf8
+		out.writeUTF( string);
+	}
+
+	/**
+	 * @param methodCount
+	 * @param step
+	 *            every how many options to specify
+	 * @return arguments specifying some of the options of a model
+	 */
+	public static String[] arguments( final int methodCount, final int step) {
+		final List< String> arguments = new ArrayList<>();
+		for( int index = 0; index < methodCount; index += step) {
+			arguments.add( "--option" + index);
+			if( index % 3 == 0)
+				arguments.add( "value" + index);
+			else if( index % 3 == 1)
+				arguments.add( String.valueOf( index));
+		}
+		return arguments.toArray( new String[ arguments.size()]);
+	}
+}
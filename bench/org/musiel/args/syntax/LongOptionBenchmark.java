@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.syntax;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.musiel.args.ArgumentPolicy;
+import org.musiel.args.DefaultParser;
+import org.musiel.args.Option;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses GNU long options, given in full or abbreviated, against a varying number of defined options.
+ * 
+ * @author Bagana
+ */
+@ State( Scope.Benchmark)
+@ BenchmarkMode( Mode.AverageTime)
+@ OutputTimeUnit( TimeUnit.MICROSECONDS)
+@ Warmup( iterations = 3, time = 1)
+@ Measurement( iterations = 5, time = 1)
+@ Fork( 1)
+public class LongOptionBenchmark {
+
+	@ Param( { "10", "100", "400"})
+	public int optionCount;
+
+	@ Param( { "false", "true"})
+	public boolean abbreviated;
+
+	@ Param( { "64"})
+	public int argumentCount;
+
+	private Syntax syntax;
+	private Set< Option> options;
+	private Syntax.ParsePlan plan;
+	private String[] args;
+
+	@ Setup
+	public void setup() {
+		this.syntax = new GnuSyntax();
+		final DefaultParser parser = new DefaultParser( this.syntax);
+		for( int index = 0; index < this.optionCount; ++index)
+			parser.addOption( "--generated-option-" + index + "-name", Collections.< String>emptyList(), false, true, ArgumentPolicy.REQUIRED, null,
+					null);
+		this.options = new LinkedHashSet< Option>( parser.getOptions());
+		this.plan = this.syntax.compile( this.options);
+
+		this.args = new String[ this.argumentCount];
+		for( int index = 0; index < this.args.length; ++index) {
+			final String name = "--generated-option-" + index % this.optionCount + "-name";
+			// "-n" is never a prefix of another option's number, so "...-n-" is the shortest unique abbreviation
+			this.args[ index] = ( this.abbreviated? name.substring( 0, name.length() - 4): name) + "=value" + index;
+		}
+	}
+
+	@ Benchmark
+	public Syntax.SyntaxResult parse() {
+		return this.syntax.parse( this.options, this.args);
+	}
+
+	@ Benchmark
+	public Syntax.SyntaxResult parseWithPlan() {
+		return this.plan.parse( this.args);
+	}
+}
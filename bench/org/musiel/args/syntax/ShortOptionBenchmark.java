@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.syntax;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.musiel.args.ArgumentPolicy;
+import org.musiel.args.DefaultParser;
+import org.musiel.args.Option;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses short options given in groups (like "-abc") of varying sizes, with {@link PosixSyntax} and {@link GnuSyntax}.
+ * 
+ * @author Bagana
+ */
+@ State( Scope.Benchmark)
+@ BenchmarkMode( Mode.AverageTime)
+@ OutputTimeUnit( TimeUnit.MICROSECONDS)
+@ Warmup( iterations = 3, time = 1)
+@ Measurement( iterations = 5, time = 1)
+@ Fork( 1)
+public class ShortOptionBenchmark {
+
+	private static final String CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+	@ Param( { "posix", "gnu"})
+	public String syntaxName;
+
+	@ Param( { "8", "62"})
+	public int optionCount;
+
+	@ Param( { "1", "8", "32"})
+	public int groupSize;
+
+	@ Param( { "64"})
+	public int argumentCount;
+
+	private Syntax syntax;
+	private Set< Option> options;
+	private Syntax.ParsePlan plan;
+	private String[] args;
+
+	@ Setup
+	public void setup() {
+		this.syntax = "posix".equals( this.syntaxName)? new PosixSyntax().setLateOptionsAllowed( true): new GnuSyntax();
+		final DefaultParser parser = new DefaultParser( this.syntax);
+		for( int index = 0; index < this.optionCount; ++index)
+			parser.addOption( "-" + ShortOptionBenchmark.CHARACTERS.charAt( index), Collections.< String>emptyList(), false, true, ArgumentPolicy.NONE,
+					null, null);
+		this.options = new LinkedHashSet< Option>( parser.getOptions());
+		this.plan = this.syntax.compile( this.options);
+
+		this.args = new String[ this.argumentCount];
+		for( int index = 0, character = 0; index < this.args.length; ++index) {
+			final StringBuilder arg = new StringBuilder( "-");
+			for( int count = 0; count < this.groupSize; ++count, character = ( character + 1) % this.optionCount)
+				arg.append( ShortOptionBenchmark.CHARACTERS.charAt( character));
+			this.args[ index] = index % 4 == 3? "operand" + index: arg.toString();
+		}
+	}
+
+	@ Benchmark
+	public Syntax.SyntaxResult parse() {
+		return this.syntax.parse( this.options, this.args);
+	}
+
+	@ Benchmark
+	public Syntax.SyntaxResult parseWithPlan() {
+		return this.plan.parse( this.args);
+	}
+}
@@ -12,18 +12,26 @@
  */
 package org.musiel.args;
 
-import java.util.Arrays;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.musiel.args.operand.OperandException;
 import org.musiel.args.operand.OperandPattern;
@@ -47,31 +55,35 @@ public abstract class AbstractParser< RESULT extends Result< ?>> implements Pars
 			throw new NullPointerException();
 	}
 
-	private String resourceBundleBase = null;
+	private volatile ResourceCache resources = null;
 
 	protected void setResourceBundleBase( final String base) {
-		this.resourceBundleBase = base;
+		this.resources = base == null? null: new ResourceCache( base);
+	}
+
+	/**
+	 * Forgets the descriptions and argument names read from the resource bundles, including the ones found missing, so that they are read
+	 * again. Call it after the bundles change, e.g. after {@link ResourceBundle#clearCache()}.
+	 */
+	public void clearResourceCache() {
+		final ResourceCache resources = this.resources;
+		if( resources != null)
+			resources.clear();
 	}
 
 	private String getResource( final Locale locale, final String key) {
-		try {
-			return this.resourceBundleBase == null? null: ResourceBundle.getBundle( this.resourceBundleBase, locale).getString( key);
-		} catch( final MissingResourceException exception) {
-			return null;
-		}
+		final ResourceCache resources = this.resources;
+		return resources == null? null: resources.get( locale, key);
 	}
 
 	private String getResource( final Locale locale, final Collection< String> tryKeys, final String keyPrefix, final String keySuffix) {
-		if( this.resourceBundleBase == null)
+		final ResourceCache resources = this.resources;
+		if( resources == null)
 			return null;
-		try {
-			final ResourceBundle bundle = ResourceBundle.getBundle( this.resourceBundleBase, locale);
-			for( final String key: tryKeys)
-				try {
-					return bundle.getString( keyPrefix + key + keySuffix);
-				} catch( final MissingResourceException exception) {
-				}
-		} catch( final MissingResourceException exception) {
+		for( final String key: tryKeys) {
+			final String resource = resources.get( locale, keyPrefix + key + keySuffix);
+			if( resource != null)
+				return resource;
 		}
 		return null;
 	}
@@ -138,9 +150,12 @@ public abstract class AbstractParser< RESULT extends Result< ?>> implements Pars
 			if( this.optionDictionary.containsKey( optionName))
 				throw new IllegalArgumentException( "duplicate option name: " + optionName);
 
-		this.options.add( option);
-		for( final String optionName: option.getNames())
-			this.optionDictionary.put( optionName, option);
+		synchronized( this.planLock) {
+			this.options.add( option);
+			for( final String optionName: option.getNames())
+				this.optionDictionary.put( optionName, option);
+			this.planChanged();
+		}
 
 		return option;
 	}
@@ -159,7 +174,20 @@ public abstract class AbstractParser< RESULT extends Result< ?>> implements Pars
 	}
 
 	protected void setOperandPattern( final String operandPattern) {
-		this.operandPattern = operandPattern == null? null: this.compilePatternAndCheckAmbiguity( operandPattern);
+		this.setCompiledOperandPattern( operandPattern == null? null: AbstractParser.compileOperandPattern( operandPattern));
+	}
+
+	/**
+	 * Sets an operand pattern compiled (and checked) by {@link #compileOperandPattern(String)}, so that subclasses creating many parsers
+	 * with the same pattern can compile it only once.
+	 * 
+	 * @param operandPattern
+	 */
+	protected void setCompiledOperandPattern( final OperandPattern operandPattern) {
+		synchronized( this.planLock) {
+			this.operandPattern = operandPattern;
+			this.planChanged();
+		}
 		this.operandDescriptions.clear();
 	}
 
@@ -181,7 +209,13 @@ public abstract class AbstractParser< RESULT extends Result< ?>> implements Pars
 		this.operandDescriptions.put( operandName, operandDescription);
 	}
 
-	private OperandPattern compilePatternAndCheckAmbiguity( final String operandPattern) {
+	/**
+	 * @param operandPattern
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if the pattern is malformed or ambiguous
+	 */
+	protected static OperandPattern compileOperandPattern( final String operandPattern) {
 		final OperandPattern compiled = OperandPattern.compile( operandPattern);
 		final String[][] ambiguityExample = compiled.findAmbiguityExample();
 		if( ambiguityExample == null)
@@ -190,21 +224,239 @@ public abstract class AbstractParser< RESULT extends Result< ?>> implements Pars
 				new StringBuilder().append( "operand pattern \"").append( operandPattern)
 						.append( "\" is ambiguous, for example, if the input length is ").append( ambiguityExample[ 0].length)
 						.append( ", there are at least following two interpretation: \"");
-		this.append( message, ambiguityExample[ 0]);
+		AbstractParser.append( message, ambiguityExample[ 0]);
 		message.append( "\" and \"");
-		this.append( message, ambiguityExample[ 0]);
+		AbstractParser.append( message, ambiguityExample[ 1]);
 		message.append( "\"");
 		throw new IllegalArgumentException( message.toString());
 	}
 
-	private void append( final StringBuilder message, final String[] strings) {
+	private static void append( final StringBuilder message, final String[] strings) {
 		for( int index = 0; index < strings.length; ++index) {
-			if( index >= 0)
+			if( index > 0)
 				message.append( ' ');
 			message.append( strings[ index]);
 		}
 	}
 
+	private volatile Collection< Class< ? extends ArgumentException>> failFastTypes = null;
+
+	public Collection< Class< ? extends ArgumentException>> getFailFastTypes() {
+		return this.failFastTypes;
+	}
+
+	/**
+	 * Makes parses stop at the first error of any of the specified types, returning a result with that error only. Arguments after the
+	 * error are not scanned, operands are not matched against the operand pattern, and nothing else is checked or decoded, so rejecting
+	 * a malformed input costs time proportional to the position of the error. Use {@code ArgumentException.class} to stop at any error.
+	 * 
+	 * @param failFastTypes
+	 *            <code>null</code> to always parse everything and collect all errors, which is the default
+	 */
+	public void setFailFastTypes( final Collection< Class< ? extends ArgumentException>> failFastTypes) {
+		this.failFastTypes = failFastTypes == null? null: Collections.unmodifiableList( new ArrayList<>( failFastTypes));
+		this.settingsChanged();
+	}
+
+	/**
+	 * Stops parsing at the first error, or collects all errors.
+	 * 
+	 * @param failFast
+	 * @see #setFailFastTypes(Collection)
+	 */
+	public void setFailFast( final boolean failFast) {
+		this.setFailFastTypes( failFast? Collections.< Class< ? extends ArgumentException>>singletonList( ArgumentException.class): null);
+	}
+
+	protected boolean isFailFast( final ArgumentException error) {
+		return this.getSettings().isFailFast( error);
+	}
+
+	private volatile ResponseFiles responseFiles = null;
+
+	public ResponseFiles getResponseFiles() {
+		return this.responseFiles;
+	}
+
+	/**
+	 * Enables expanding response files, so that an argument <code>@file</code> is replaced by the arguments in the file. They are fed to
+	 * the syntax one by one as the file is read. Problems with the files are reported as {@link ResponseFileException}s. Parsing with a
+	 * {@link Syntax.Listener} does not expand response files.
+	 * 
+	 * @param responseFiles
+	 *            how to read response files, <code>null</code> to take arguments like <code>@file</code> literally, which is the default
+	 */
+	public void setResponseFiles( final ResponseFiles responseFiles) {
+		this.responseFiles = responseFiles;
+		this.settingsChanged();
+	}
+
+	private volatile ParseMetrics metrics = ParseMetrics.NONE;
+
+	public ParseMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Makes parses report how long each phase takes, which options occur and which errors are found. Parsing with a
+	 * {@link Syntax.Listener} is not measured.
+	 * 
+	 * @param metrics
+	 *            <code>null</code> or {@link ParseMetrics#NONE} to measure nothing, which is the default
+	 */
+	public void setMetrics( final ParseMetrics metrics) {
+		this.metrics = metrics == null? ParseMetrics.NONE: metrics;
+		this.settingsChanged();
+	}
+
+	private volatile boolean stackTraceEnabled = true;
+
+	public boolean isStackTraceEnabled() {
+		return this.stackTraceEnabled;
+	}
+
+	/**
+	 * Sets whether the {@link ArgumentException}s of parses fill in their stack traces. Stack traces of user input errors are seldom of
+	 * any use, while filling them in dominates the cost of creating the exceptions, which matters when parsing untrusted input, where
+	 * errors are common. Parsing with a {@link Syntax.Listener} and reading response files are not affected.
+	 * 
+	 * @param stackTraceEnabled
+	 *            <code>true</code> by default
+	 */
+	public void setStackTraceEnabled( final boolean stackTraceEnabled) {
+		this.stackTraceEnabled = stackTraceEnabled;
+		this.settingsChanged();
+	}
+
+	/**
+	 * The settings of a parser, as they are at some point. Parses read settings only from here, so that a parse, a session or a batch
+	 * uses the same settings all along, however they are changed meanwhile. Immutable, thus shared by concurrent parses. Subclasses with
+	 * settings of their own extend it, see {@link AbstractParser#newSettings()}.
+	 */
+	protected static class Settings {
+
+		private final Collection< Class< ? extends ArgumentException>> failFastTypes;
+		private final ResponseFiles responseFiles;
+		private final ParseMetrics metrics;
+		private final boolean stackTraceEnabled;
+
+		protected Settings( final AbstractParser< ?> parser) {
+			this.failFastTypes = parser.failFastTypes;
+			this.responseFiles = parser.responseFiles;
+			this.metrics = parser.metrics;
+			this.stackTraceEnabled = parser.stackTraceEnabled;
+		}
+
+		public boolean isFailFast( final ArgumentException error) {
+			if( this.failFastTypes != null)
+				for( final Class< ? extends ArgumentException> type: this.failFastTypes)
+					if( type.isInstance( error))
+						return true;
+			return false;
+		}
+
+		public ParseMetrics getMetrics() {
+			return this.metrics;
+		}
+
+		public boolean isStackTraceEnabled() {
+			return this.stackTraceEnabled;
+		}
+	}
+
+	// captured on demand, and dropped whenever a setting is changed
+	private volatile Settings settings = null;
+	// counts the changes, so that settings captured while one is being made are not kept; guarded by settingsLock
+	private int settingsVersion = 0;
+	private final Object settingsLock = new Object();
+
+	/**
+	 * Captures the current settings. Subclasses adding settings override it to return a subclass of {@link Settings}, and call
+	 * {@link #settingsChanged()} whenever one of theirs is changed.
+	 * 
+	 * @return
+	 */
+	protected Settings newSettings() {
+		return new Settings( this);
+	}
+
+	protected void settingsChanged() {
+		synchronized( this.settingsLock) {
+			++this.settingsVersion;
+			this.settings = null;
+		}
+	}
+
+	protected Settings getSettings() {
+		Settings settings = this.settings;
+		if( settings == null) {
+			final int version;
+			synchronized( this.settingsLock) {
+				version = this.settingsVersion;
+			}
+			settings = this.newSettings();
+			synchronized( this.settingsLock) {
+				if( this.settingsVersion == version)
+					this.settings = settings;
+			}
+		}
+		return settings;
+	}
+
+	/**
+	 * Everything needed by {@link AbstractParser#parse(String...)} that does not depend on the arguments: the compiled syntax plan (with
+	 * validated options and name lookup structures) and the compiled operand pattern. Immutable, thus shared by concurrent parses.
+	 */
+	private static final class Plan {
+
+		private final Syntax.ParsePlan syntaxPlan;
+		private final OperandPattern operandPattern;
+		// for counting occurrences, see ParseMetrics.onOption
+		private final String[] optionNames;
+
+		private Plan( final Syntax.ParsePlan syntaxPlan, final OperandPattern operandPattern, final Collection< Option> options) {
+			this.syntaxPlan = syntaxPlan;
+			this.operandPattern = operandPattern;
+			this.optionNames = new String[ options.size()];
+			int index = 0;
+			for( final Option option: options)
+				this.optionNames[ index++] = option.getName();
+		}
+	}
+
+	// built on demand, and dropped whenever an option or the operand pattern is changed
+	private volatile Plan plan = null;
+	// counts the changes, so that plans compiled while one is being made are not kept; guarded by planLock, as are the options and the
+	// operand pattern
+	private int planVersion = 0;
+	private final Object planLock = new Object();
+
+	private void planChanged() {
+		++this.planVersion;
+		this.plan = null;
+	}
+
+	// also replaces a plan compiled before the syntax is configured differently
+	private Plan getPlan() {
+		Plan plan = this.plan;
+		if( plan == null || plan.syntaxPlan.isOutdated()) {
+			final int version;
+			final Set< Option> options;
+			final OperandPattern operandPattern;
+			synchronized( this.planLock) {
+				version = this.planVersion;
+				options = new LinkedHashSet<>( this.options);
+				operandPattern = this.operandPattern;
+			}
+			plan = new Plan( this.syntax.compile( options), operandPattern, options);
+			synchronized( this.planLock) {
+				if( this.planVersion == version)
+					this.plan = plan;
+			}
+		}
+		return plan;
+	}
+
 	@ Override
 	public RESULT parse( final String[] args, final int offset) {
 		if( offset < 0 || offset >= args.length)
@@ -220,25 +472,430 @@ public abstract class AbstractParser< RESULT extends Result< ?>> implements Pars
 			throw new IllegalArgumentException( String.valueOf( length));
 		if( offset + length > args.length)
 			throw new ArrayIndexOutOfBoundsException( offset + length);
-		return this.parse( Arrays.copyOfRange( args, offset, offset + length));
+		final Session< RESULT> session = this.begin();
+		for( int index = offset; index < offset + length; ++index)
+			session.feed( args[ index]);
+		return session.finish();
 	}
 
 	@ Override
 	public RESULT parse( final String... args) {
-		final SyntaxResult syntaxResult = this.syntax.parse( Collections.unmodifiableSet( this.options), args);
-		final Collection< ArgumentException> exceptions = new LinkedList< ArgumentException>( syntaxResult.getErrors());
+		return this.parse( this.getPlan(), this.getSettings(), args);
+	}
+
+	private RESULT parse( final Plan plan, final Settings settings, final String... args) {
+		if( settings.failFastTypes != null || settings.responseFiles != null || !settings.stackTraceEnabled) {
+			final Session< RESULT> session = this.begin( plan, settings);
+			for( int index = 0; index < args.length && !session.isStopped(); ++index)
+				session.feed( args[ index]);
+			return session.finish();
+		}
+		final Collection< ArgumentException> noErrors = Collections.emptyList();
+		if( settings.metrics == ParseMetrics.NONE)
+			return this.buildResult( plan, settings, plan.syntaxPlan.parse( args), noErrors, args.length);
+		final long start = System.nanoTime();
+		final SyntaxResult syntaxResult = plan.syntaxPlan.parse( args);
+		settings.metrics.onPhase( ParseMetrics.Phase.SYNTAX, System.nanoTime() - start);
+		return this.buildResult( plan, settings, syntaxResult, noErrors, args.length);
+	}
+
+	private static final class PooledSession< RESULT extends Result< ?>> {
+
+		// what the session was started with, it is replaced once either changes
+		private final Plan plan;
+		private final Settings settings;
+		private final Session< RESULT> session;
+
+		private PooledSession( final Plan plan, final Settings settings, final Session< RESULT> session) {
+			this.plan = plan;
+			this.settings = settings;
+			this.session = session;
+		}
+	}
+
+	// only weakly referenced by the threads, since a session refers to this parser, which a thread must not keep from being collected
+	private final ThreadLocal< WeakReference< PooledSession< RESULT>>> pooledSessions = new ThreadLocal<>();
+	// keeps the sessions as long as both this parser and their threads live; guarded by itself
+	private final Map< Thread, PooledSession< RESULT>> pooledSessionsByThread = new WeakHashMap<>();
+
+	/**
+	 * Parses an argument array with a session kept for the current thread, and {@link Session#reset() reset} for each parse. Once the
+	 * session is warmed up, the syntax machine and its per-option lists are reused, but the result, its accessor, the collection of errors
+	 * and the map of operands are still allocated for each parse, as they are by {@link #parse(String...)}. The result is only valid
+	 * until the next call of this method in the same thread; it must not be kept or handed to another thread.
+	 * 
+	 * @param args
+	 * @return
+	 * @see #removeTransientSession()
+	 */
+	public RESULT parseTransiently( final String... args) {
+		final Plan plan = this.getPlan();
+		final Settings settings = this.getSettings();
+		final WeakReference< PooledSession< RESULT>> reference = this.pooledSessions.get();
+		PooledSession< RESULT> pooled = reference == null? null: reference.get();
+		if( pooled == null || pooled.plan != plan || pooled.settings != settings) {
+			pooled = new PooledSession<>( plan, settings, this.begin( plan, settings));
+			synchronized( this.pooledSessionsByThread) {
+				this.pooledSessionsByThread.put( Thread.currentThread(), pooled);
+			}
+			this.pooledSessions.set( new WeakReference<>( pooled));
+		} else
+			pooled.session.reset();
+		for( int index = 0; index < args.length && !pooled.session.isStopped(); ++index)
+			pooled.session.feed( args[ index]);
+		return pooled.session.finish();
+	}
+
+	/**
+	 * Drops the session kept for the current thread by {@link #parseTransiently(String...)}, e.g. before returning the thread to a pool.
+	 * Sessions are dropped anyway when their threads end or this parser is collected.
+	 */
+	public void removeTransientSession() {
+		this.pooledSessions.remove();
+		synchronized( this.pooledSessionsByThread) {
+			this.pooledSessionsByThread.remove( Thread.currentThread());
+		}
+	}
+
+	/**
+	 * Parses argument vectors one after another, with the options, operand pattern and other settings as they are when this method is
+	 * called.
+	 * 
+	 * @param argumentVectors
+	 * @return the results, in the same order as the input
+	 */
+	public List< RESULT> parseAll( final Iterable< String[]> argumentVectors) {
+		final Plan plan = this.getPlan();
+		final Settings settings = this.getSettings();
+		final List< RESULT> results = new ArrayList<>();
+		for( final String[] args: argumentVectors)
+			results.add( this.parse( plan, settings, args));
+		return results;
+	}
+
+	/**
+	 * Receives the results of {@link AbstractParser#parseAll(Iterable, ExecutorService, boolean, BatchConsumer)}, always in the thread
+	 * which called it.
+	 * 
+	 * @author Bagana
+	 * 
+	 * @param <RESULT>
+	 */
+	public static interface BatchConsumer< RESULT> {
+
+		/**
+		 * @param index
+		 *            the position of the argument vector in the input, starting from 0
+		 * @param args
+		 * @param result
+		 */
+		public void onResult( long index, String[] args, RESULT result);
+	}
+
+	private static final int BATCH_CHUNK_SIZE = 64;
+
+	private final class Chunk implements Callable< Chunk> {
+
+		private final Plan plan;
+		private final Settings settings;
+		private final long firstIndex;
+		private final String[][] argumentVectors;
+		private final List< RESULT> results;
+
+		private Chunk( final Plan plan, final Settings settings, final long firstIndex, final String[][] argumentVectors) {
+			this.plan = plan;
+			this.settings = settings;
+			this.firstIndex = firstIndex;
+			this.argumentVectors = argumentVectors;
+			this.results = new ArrayList<>( argumentVectors.length);
+		}
+
+		@ Override
+		public Chunk call() {
+			for( final String[] args: this.argumentVectors)
+				this.results.add( AbstractParser.this.parse( this.plan, this.settings, args));
+			return this;
+		}
+	}
+
+	/**
+	 * Parses argument vectors concurrently, in chunks submitted to an executor, e.g. a {@link java.util.concurrent.ForkJoinPool}. The input
+	 * is iterated lazily, with a bounded number of chunks in progress, so it can be larger than the memory. All chunks share the options,
+	 * operand pattern, syntax configuration and other settings of the parser as they are when this method is called, so changing them
+	 * meanwhile does not affect the batch.
+	 * 
+	 * @param argumentVectors
+	 * @param executor
+	 * @param ordered
+	 *            whether results are passed to the consumer in the order of the input, otherwise in the order they are ready
+	 * @param consumer
+	 * @return figures about the batch
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for results, chunks in progress are then cancelled
+	 */
+	public BatchStatistics parseAll( final Iterable< String[]> argumentVectors, final ExecutorService executor, final boolean ordered,
+			final BatchConsumer< ? super RESULT> consumer) throws InterruptedException {
+		final long start = System.nanoTime();
+		final Plan plan = this.getPlan();
+		final Settings settings = this.getSettings();
+		final int maxPending = 4 * Runtime.getRuntime().availableProcessors();
+		// not used if ordered, as it would keep the completed chunks until taken
+		final CompletionService< Chunk> completionService = ordered? null: new ExecutorCompletionService< Chunk>( executor);
+		final LinkedList< Future< Chunk>> pending = new LinkedList<>();
+		final long[] counts = { 0, 0}; // results, results with errors
+		try {
+			final Iterator< String[]> iterator = argumentVectors.iterator();
+			for( long index = 0; iterator.hasNext();) {
+				final List< String[]> chunk = new ArrayList<>( AbstractParser.BATCH_CHUNK_SIZE);
+				while( chunk.size() < AbstractParser.BATCH_CHUNK_SIZE && iterator.hasNext())
+					chunk.add( iterator.next());
+				final Chunk task = new Chunk( plan, settings, index, chunk.toArray( new String[ chunk.size()][]));
+				pending.add( ordered? executor.submit( task): completionService.submit( task));
+				index += chunk.size();
+				if( pending.size() >= maxPending)
+					this.deliver( pending, completionService, consumer, counts);
+			}
+			while( !pending.isEmpty())
+				this.deliver( pending, completionService, consumer, counts);
+		} finally {
+			for( final Future< Chunk> future: pending)
+				future.cancel( true);
+		}
+		return new BatchStatistics( counts[ 0], counts[ 1], System.nanoTime() - start);
+	}
+
+	private void deliver( final LinkedList< Future< Chunk>> pending, final CompletionService< Chunk> completionService,
+			final BatchConsumer< ? super RESULT> consumer, final long[] counts) throws InterruptedException {
+		final Future< Chunk> future = completionService == null? pending.getFirst(): completionService.take();
+		final Chunk chunk;
+		try {
+			chunk = future.get();
+		} catch( final ExecutionException exception) {
+			if( exception.getCause() instanceof RuntimeException)
+				throw ( RuntimeException) exception.getCause();
+			if( exception.getCause() instanceof Error)
+				throw ( Error) exception.getCause();
+			throw new IllegalStateException( exception.getCause());
+		}
+		pending.remove( future);
+		for( int index = 0; index < chunk.results.size(); ++index) {
+			final RESULT result = chunk.results.get( index);
+			++counts[ 0];
+			if( !result.getErrors().isEmpty())
+				++counts[ 1];
+			consumer.onResult( chunk.firstIndex + index, chunk.argumentVectors[ index], result);
+		}
+	}
+
+	/**
+	 * Parses an argument array, reporting every option occurrence, operand and error to a listener as soon as it is found, without
+	 * building a result. Operands are reported one by one, and the operand pattern is not applied to them.
+	 * 
+	 * @param listener
+	 * @param args
+	 * @see Syntax.ParsePlan#parse(Syntax.Listener, String...)
+	 */
+	public void parse( final Syntax.Listener listener, final String... args) {
+		this.getPlan().syntaxPlan.parse( listener, args);
+	}
+
+	@ Override
+	public Session< RESULT> begin() {
+		return this.begin( this.getPlan(), this.getSettings());
+	}
+
+	private Session< RESULT> begin( final Plan plan, final Settings settings) {
+		final Syntax.Session session = plan.syntaxPlan.begin( settings.failFastTypes, settings.stackTraceEnabled);
+		final ResponseFiles responseFiles = settings.responseFiles;
+		final ParseMetrics metrics = settings.metrics;
+		return new Session< RESULT>() {
+
+			private final Collection< ArgumentException> responseFileErrors = new LinkedList<>();
+			// a response file error stopping the parse, syntax errors stop the syntax session instead
+			private ArgumentException failure = null;
+
+			private final ResponseFiles.Sink sink = new ResponseFiles.Sink() {
+
+				@ Override
+				public boolean onToken( final String token) {
+					scan( token);
+					return !isStopped();
+				}
+
+				@ Override
+				public boolean onError( final ResponseFileException error) {
+					if( settings.isFailFast( error))
+						failure = error;
+					responseFileErrors.add( error);
+					return !isStopped();
+				}
+			};
+
+			private boolean finished = false;
+			private int argumentCount = 0;
+			private long syntaxNanos = 0;
+
+			private void scan( final CharSequence arg) {
+				++this.argumentCount;
+				if( metrics == ParseMetrics.NONE) {
+					session.feed( arg);
+					return;
+				}
+				final long start = System.nanoTime();
+				session.feed( arg);
+				this.syntaxNanos += System.nanoTime() - start;
+			}
+
+			@ Override
+			public void feed( final CharSequence arg) throws IllegalStateException {
+				if( this.finished)
+					throw new IllegalStateException( "session finished");
+				if( this.isStopped())
+					return;
+				if( responseFiles != null && ResponseFiles.isReference( arg))
+					this.expand( arg);
+				else
+					this.scan( arg);
+			}
+
+			private void expand( final CharSequence arg) {
+				if( metrics == ParseMetrics.NONE) {
+					responseFiles.expand( arg, this.sink);
+					return;
+				}
+				// reading the files counts as scanning, but the tokens are timed by scan already
+				final long start = System.nanoTime();
+				final long syntaxNanos = this.syntaxNanos;
+				responseFiles.expand( arg, this.sink);
+				this.syntaxNanos = syntaxNanos + System.nanoTime() - start;
+			}
+
+			@ Override
+			public boolean isStopped() {
+				return this.failure != null || session.isStopped();
+			}
+
+			@ Override
+			public RESULT finish() throws IllegalStateException {
+				final boolean measuring = metrics != ParseMetrics.NONE;
+				final long start = measuring? System.nanoTime(): 0;
+				final SyntaxResult syntaxResult = session.finish();
+				this.finished = true;
+				final long end = measuring? System.nanoTime(): 0;
+				if( measuring)
+					metrics.onPhase( ParseMetrics.Phase.SYNTAX, this.syntaxNanos + end - start);
+				if( this.failure != null)
+					return AbstractParser.this.measured( metrics, plan, syntaxResult, this.argumentCount, end,
+							AbstractParser.this.buildFailedResult( syntaxResult, this.failure));
+				return AbstractParser.this.buildResult( plan, settings, syntaxResult, this.responseFileErrors, this.argumentCount);
+			}
+
+			@ Override
+			public void reset() {
+				session.reset();
+				this.responseFileErrors.clear();
+				this.failure = null;
+				this.finished = false;
+				this.argumentCount = 0;
+				this.syntaxNanos = 0;
+			}
+		};
+	}
+
+	private RESULT buildResult( final Plan plan, final Settings settings, final SyntaxResult syntaxResult,
+			final Collection< ArgumentException> responseFileErrors, final int argumentCount) {
+		final ParseMetrics metrics = settings.metrics;
+		final boolean measuring = metrics != ParseMetrics.NONE;
+		long start = measuring? System.nanoTime(): 0;
+		for( final ArgumentException exception: syntaxResult.getErrors())
+			if( settings.isFailFast( exception))
+				return this.measured( metrics, plan, syntaxResult, argumentCount, start, this.buildFailedResult( syntaxResult, exception));
+		final Collection< ArgumentException> exceptions = new LinkedList< ArgumentException>( responseFileErrors);
+		exceptions.addAll( syntaxResult.getErrors());
 		Map< String, List< String>> operandMap = null;
-		if( this.operandPattern != null)
+		if( plan.operandPattern != null) {
 			try {
-				operandMap = this.operandPattern.match( syntaxResult.getOperands());
+				operandMap = plan.operandPattern.match( syntaxResult.getOperands(), settings.stackTraceEnabled);
 			} catch( final OperandException exception) {
+				if( settings.isFailFast( exception))
+					return this.measured( metrics, plan, syntaxResult, argumentCount, start,
+							this.buildFailedResult( syntaxResult, exception));
 				exceptions.add( exception);
 			}
+			if( measuring) {
+				final long end = System.nanoTime();
+				metrics.onPhase( ParseMetrics.Phase.OPERANDS, end - start);
+				start = end;
+			}
+		}
 
-		return this.buildResult( syntaxResult, operandMap != null? operandMap: Collections.< String, List< String>>emptyMap(),
-				Collections.unmodifiableCollection( exceptions));
+		final Map< String, List< String>> operands = operandMap != null? operandMap: Collections.< String, List< String>>emptyMap();
+		return this.measured( metrics, plan, syntaxResult, argumentCount, start,
+				this.buildResult( settings, syntaxResult, operands, Collections.unmodifiableCollection( exceptions)));
+	}
+
+	/**
+	 * Reports a finished parse, with the errors its result exposes, see {@link #getKnownErrors(Result)}.
+	 */
+	private RESULT measured( final ParseMetrics metrics, final Plan plan, final SyntaxResult syntaxResult, final int argumentCount,
+			final long buildStart, final RESULT result) {
+		if( metrics == ParseMetrics.NONE)
+			return result;
+		metrics.onPhase( ParseMetrics.Phase.BUILD, System.nanoTime() - buildStart);
+		for( final String name: plan.optionNames) {
+			final List< String> names = syntaxResult.getNames( name);
+			if( names != null && !names.isEmpty())
+				metrics.onOption( name, names.size());
+		}
+		for( final ArgumentException error: this.getKnownErrors( result))
+			metrics.onError( error.getClass());
+		metrics.onParsed( argumentCount);
+		return result;
+	}
+
+	/**
+	 * Returns the errors of a result that are reported to the {@link ParseMetrics} when the parse finishes, by default
+	 * {@link Result#getErrors()}. Subclasses whose results find some errors only later, e.g. by decoding lazily, return those known so
+	 * far, and report the others when they are found.
+	 * 
+	 * @param result
+	 * @return
+	 */
+	protected Collection< ? extends ArgumentException> getKnownErrors( final RESULT result) {
+		return result.getErrors();
 	}
 
 	protected abstract RESULT buildResult( SyntaxResult syntaxResult, Map< String, List< String>> operands,
 			Collection< ? extends ArgumentException> exceptions);
+
+	/**
+	 * Builds the result with the settings the parse is started with. By default, it is
+	 * {@link #buildResult(SyntaxResult, Map, Collection)}; subclasses with settings of their own override this one to read them from
+	 * {@code settings}, which is what {@link #newSettings()} returns.
+	 * 
+	 * @param settings
+	 * @param syntaxResult
+	 * @param operands
+	 * @param exceptions
+	 * @return
+	 */
+	protected RESULT buildResult( final Settings settings, final SyntaxResult syntaxResult, final Map< String, List< String>> operands,
+			final Collection< ? extends ArgumentException> exceptions) {
+		return this.buildResult( syntaxResult, operands, exceptions);
+	}
+
+	/**
+	 * Builds the result of a parse stopped by an error, as requested by {@link #setFailFastTypes(Collection)}. By default, it is
+	 * {@link #buildResult(SyntaxResult, Map, Collection)} with no operands and only the error; subclasses doing expensive work there should
+	 * override it to skip the work.
+	 * 
+	 * @param syntaxResult
+	 *            options and operands found before the error
+	 * @param error
+	 * @return
+	 */
+	protected RESULT buildFailedResult( final SyntaxResult syntaxResult, final ArgumentException error) {
+		return this.buildResult( syntaxResult, Collections.< String, List< String>>emptyMap(),
+				Collections.< ArgumentException>singletonList( error));
+	}
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ParseMetrics} kept in memory: a {@link Histogram} of nanoseconds for each phase and one of argument counts, plus counters of
+ * option occurrences and errors, to be read, e.g., by a metrics endpoint. One instance can be shared by several parsers.
+ * 
+ * @author Bagana
+ */
+public class AggregatingParseMetrics implements ParseMetrics {
+
+	private final Map< Phase, Histogram> phases = new EnumMap<>( Phase.class);
+	private final Histogram argumentCounts = new Histogram();
+	private final ConcurrentMap< String, AtomicLong> optionCounts = new ConcurrentHashMap<>();
+	private final ConcurrentMap< Class< ? extends ArgumentException>, AtomicLong> errorCounts = new ConcurrentHashMap<>();
+
+	public AggregatingParseMetrics() {
+		for( final Phase phase: Phase.values())
+			this.phases.put( phase, new Histogram());
+	}
+
+	private static < KEY>void add( final ConcurrentMap< KEY, AtomicLong> counts, final KEY key, final long delta) {
+		AtomicLong count = counts.get( key);
+		if( count == null) {
+			final AtomicLong existing = counts.putIfAbsent( key, count = new AtomicLong());
+			if( existing != null)
+				count = existing;
+		}
+		count.addAndGet( delta);
+	}
+
+	private static < KEY>Map< KEY, Long> snapshot( final Map< KEY, AtomicLong> counts, final Map< KEY, Long> snapshot) {
+		for( final Map.Entry< KEY, AtomicLong> entry: counts.entrySet())
+			snapshot.put( entry.getKey(), entry.getValue().get());
+		return Collections.unmodifiableMap( snapshot);
+	}
+
+	@ Override
+	public void onPhase( final Phase phase, final long nanos) {
+		this.phases.get( phase).record( Math.max( 0, nanos));
+	}
+
+	@ Override
+	public void onOption( final String name, final int occurrences) {
+		AggregatingParseMetrics.add( this.optionCounts, name, occurrences);
+	}
+
+	@ Override
+	public void onError( final Class< ? extends ArgumentException> type) {
+		AggregatingParseMetrics.add( this.errorCounts, type, 1);
+	}
+
+	@ Override
+	public void onParsed( final int argumentCount) {
+		this.argumentCounts.record( argumentCount);
+	}
+
+	/**
+	 * @param phase
+	 * @return nanoseconds spent in the phase, one value per parse going through it
+	 */
+	public Histogram getPhaseTimes( final Phase phase) {
+		return this.phases.get( phase);
+	}
+
+	/**
+	 * @return the number of arguments, one value per parse; its count is the number of parses
+	 */
+	public Histogram getArgumentCounts() {
+		return this.argumentCounts;
+	}
+
+	/**
+	 * @return occurrences of each option, by {@link Option#getName()}, as they are when this method is called
+	 */
+	public Map< String, Long> getOptionCounts() {
+		return AggregatingParseMetrics.snapshot( this.optionCounts, new TreeMap< String, Long>());
+	}
+
+	/**
+	 * @return the number of errors of each type, as they are when this method is called
+	 */
+	public Map< Class< ? extends ArgumentException>, Long> getErrorCounts() {
+		return AggregatingParseMetrics.snapshot( this.errorCounts, new HashMap< Class< ? extends ArgumentException>, Long>());
+	}
+
+	/**
+	 * Forgets everything recorded. Measurements recorded concurrently may be partly forgotten.
+	 */
+	public void reset() {
+		for( final Histogram histogram: this.phases.values())
+			histogram.reset();
+		this.argumentCounts.reset();
+		this.optionCounts.clear();
+		this.errorCounts.clear();
+	}
+
+	@ Override
+	public String toString() {
+		final StringBuilder string = new StringBuilder();
+		for( final Phase phase: Phase.values())
+			string.append( phase).append( " nanos: ").append( this.phases.get( phase)).append( '\n');
+		string.append( "arguments: ").append( this.argumentCounts).append( '\n');
+		string.append( "options: ").append( this.getOptionCounts()).append( '\n');
+		string.append( "errors: ").append( this.getErrorCounts());
+		return string.toString();
+	}
+}
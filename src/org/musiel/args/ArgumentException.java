@@ -12,15 +12,25 @@
  */
 package org.musiel.args;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Indicates an error from user input, such as an unknown option or an unexpected option-argument.
  * 
+ * <p>
+ * Messages are formatted only when asked for, from templates read from the resource bundles once per locale and cached. Created without
+ * a stack trace, e.g. by a parser with {@link AbstractParser#setStackTraceEnabled(boolean) stack traces disabled}, an
+ * {@link ArgumentException} costs little more than a plain object, which suits parsing untrusted input, where errors are common.
+ * </p>
+ * 
  * @author Bagana
  */
 public abstract class ArgumentException extends Exception {
@@ -43,7 +53,19 @@ public abstract class ArgumentException extends Exception {
 	 * @param message
 	 */
 	public ArgumentException( final Throwable cause, final String message) {
-		super( cause);
+		this( true, cause, message);
+	}
+
+	/**
+	 * Construct an {@link ArgumentException} like {@link #ArgumentException(Throwable, String)}, filling in its stack trace only if
+	 * specified.
+	 * 
+	 * @param stackTraceEnabled
+	 * @param cause
+	 * @param message
+	 */
+	public ArgumentException( final boolean stackTraceEnabled, final Throwable cause, final String message) {
+		super( cause == null? null: cause.toString(), cause, true, stackTraceEnabled);
 		this.useResourceBundle = false;
 		this.message = message;
 		this.messageBundleBase = null;
@@ -82,7 +104,22 @@ public abstract class ArgumentException extends Exception {
 	 */
 	public ArgumentException( final Throwable cause, final String messageBundleBase, final String messageKey,
 			final Object... messageParameters) {
-		super( cause);
+		this( true, cause, messageBundleBase, messageKey, messageParameters);
+	}
+
+	/**
+	 * Construct an {@link ArgumentException} like {@link #ArgumentException(Throwable, String, String, Object...)}, filling in its stack
+	 * trace only if specified.
+	 * 
+	 * @param stackTraceEnabled
+	 * @param cause
+	 * @param messageBundleBase
+	 * @param messageKey
+	 * @param messageParameters
+	 */
+	public ArgumentException( final boolean stackTraceEnabled, final Throwable cause, final String messageBundleBase,
+			final String messageKey, final Object... messageParameters) {
+		super( cause == null? null: cause.toString(), cause, true, stackTraceEnabled);
 		this.useResourceBundle = true;
 		this.message = null;
 		this.messageBundleBase = messageBundleBase;
@@ -129,35 +166,94 @@ public abstract class ArgumentException extends Exception {
 			return this.message;
 		if( this.messageBundleBase == null || this.messageKey == null)
 			return this.getFailsafeMessage();
-		try {
-			return ArgumentException.substitute( ResourceBundle.getBundle( this.messageBundleBase, locale).getString( this.messageKey),
-					this.getLocalizedParameters( locale));
-		} catch( final MissingResourceException exception) {
-			return this.getFailsafeMessage();
-		}
+		final Template template = Template.get( this.messageBundleBase, this.messageKey, locale);
+		return template == null? this.getFailsafeMessage(): template.format( this.getLocalizedParameters( locale));
 	}
 
 	protected String[] getLocalizedParameters( final Locale locale) {
 		return this.messageParameters;
 	}
 
-	private static final Pattern SUBSTITUTION_POINT_PATTERN = Pattern.compile( "\\{[1-9]\\d*\\}");
+	/**
+	 * Forgets the message templates read from the resource bundles, including the ones found missing, so that they are read again. Call it
+	 * after the bundles change, e.g. after {@link ResourceBundle#clearCache()}.
+	 */
+	public static void clearMessageCache() {
+		Template.CACHE.clear();
+	}
+
+	/**
+	 * A message template split at its substitution points <code>{1}</code>, <code>{2}</code>, ... Substitution points without
+	 * corresponding parameters are kept as they are.
+	 */
+	private static final class Template {
+
+		private static final Pattern SUBSTITUTION_POINT_PATTERN = Pattern.compile( "\\{[1-9]\\d*\\}");
+
+		// templates by locale, then by bundle base and key; MISSING for keys or bundles not found
+		private static final ConcurrentMap< Locale, ConcurrentMap< String, Template>> CACHE = new ConcurrentHashMap<>();
+		private static final Template MISSING = new Template( "");
 
-	private static String substitute( final String template, final String... params) {
-		final StringBuilder result = new StringBuilder();
-		final Matcher matcher = ArgumentException.SUBSTITUTION_POINT_PATTERN.matcher( template);
-		int matched;
-		for( matched = 0; matcher.find( matched); matched = matcher.end()) {
-			result.append( template, matched, matcher.start());
+		private final String[] texts; // one more than substitution points, the text before each of them and the text after all
+		private final String[] points;
+		private final int[] indices; // of the parameters, -1 if too large to be one
+
+		private Template( final String template) {
+			final List< String> texts = new ArrayList<>();
+			final List< String> points = new ArrayList<>();
+			final Matcher matcher = Template.SUBSTITUTION_POINT_PATTERN.matcher( template);
+			int matched;
+			for( matched = 0; matcher.find( matched); matched = matcher.end()) {
+				texts.add( template.substring( matched, matcher.start()));
+				points.add( matcher.group());
+			}
+			texts.add( template.substring( matched));
+			this.texts = texts.toArray( new String[ texts.size()]);
+			this.points = points.toArray( new String[ points.size()]);
+			this.indices = new int[ this.points.length];
+			for( int point = 0; point < this.points.length; ++point)
+				try {
+					this.indices[ point] = Integer.parseInt( this.points[ point].substring( 1, this.points[ point].length() - 1)) - 1;
+				} catch( final NumberFormatException exception) {
+					this.indices[ point] = -1;
+				}
+		}
+
+		private static Template get( final String base, final String key, final Locale locale) {
+			ConcurrentMap< String, Template> templates = Template.CACHE.get( locale);
+			if( templates == null) {
+				final ConcurrentMap< String, Template> newTemplates = new ConcurrentHashMap<>();
+				templates = Template.CACHE.putIfAbsent( locale, newTemplates);
+				if( templates == null)
+					templates = newTemplates;
+			}
+			final String cacheKey = base + '#' + key;
+			Template template = templates.get( cacheKey);
+			if( template == null) {
+				template = Template.read( base, key, locale);
+				templates.put( cacheKey, template);
+			}
+			return template == Template.MISSING? null: template;
+		}
+
+		private static Template read( final String base, final String key, final Locale locale) {
+			final ResourceBundle bundle;
 			try {
-				final int index = Integer.parseInt( matcher.group().substring( 1, matcher.group().length() - 1)) - 1;
-				result.append( index >= 0 && index < params.length? params[ index]: matcher.group());
-			} catch( final NumberFormatException exception) {
-				result.append( matcher.group());
+				bundle = ResourceBundle.getBundle( base, locale);
+			} catch( final MissingResourceException exception) {
+				return Template.MISSING;
+			}
+			return bundle.containsKey( key)? new Template( bundle.getString( key)): Template.MISSING;
+		}
+
+		private String format( final String... params) {
+			final StringBuilder result = new StringBuilder( this.texts[ 0]);
+			for( int point = 0; point < this.points.length; ++point) {
+				final int index = this.indices[ point];
+				result.append( index >= 0 && index < params.length? params[ index]: this.points[ point]).append( this.texts[ point + 1]);
 			}
+			return result.toString();
 		}
-		result.append( template, matched, template.length());
-		return result.toString();
 	}
 
 	protected String getFailsafeMessage() {
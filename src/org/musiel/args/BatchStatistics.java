@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Figures about a batch of argument vectors parsed by {@link AbstractParser#parseAll(Iterable, java.util.concurrent.ExecutorService,
+ * boolean, AbstractParser.BatchConsumer)}.
+ * 
+ * @author Bagana
+ */
+public class BatchStatistics {
+
+	private final long count;
+	private final long errorCount;
+	private final long elapsedNanos;
+
+	public BatchStatistics( final long count, final long errorCount, final long elapsedNanos) {
+		this.count = count;
+		this.errorCount = errorCount;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return the number of argument vectors parsed
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * @return the number of results with errors
+	 */
+	public long getErrorCount() {
+		return this.errorCount;
+	}
+
+	public long getElapsedTime( final TimeUnit unit) {
+		return unit.convert( this.elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return argument vectors parsed per second
+	 */
+	public double getThroughput() {
+		return this.elapsedNanos == 0? 0: this.count * 1e9 / this.elapsedNanos;
+	}
+
+	@ Override
+	public String toString() {
+		return String.format( "%d parsed (%d with errors) in %.3f ms, %.0f/s", this.count, this.errorCount, this.elapsedNanos / 1e6,
+				this.getThroughput());
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe histogram of non-negative <code>long</code> values, with buckets growing exponentially like those of HdrHistogram:
+ * values below 128 are counted exactly, and larger ones in buckets no wider than 1/64 of their lower bounds, so any percentile is
+ * reported with a relative error below 1.6%, whatever the range of the values. Recording does not allocate or lock.
+ * 
+ * @author Bagana
+ */
+public class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKET_COUNT = 1 << Histogram.SUB_BUCKET_BITS;
+	private static final int HALF_SUB_BUCKET_COUNT = Histogram.SUB_BUCKET_COUNT / 2;
+	private static final int BUCKET_COUNT =
+			Histogram.SUB_BUCKET_COUNT + ( Long.SIZE - 1 - Histogram.SUB_BUCKET_BITS) * Histogram.HALF_SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray( Histogram.BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	private static int indexOf( final long value) {
+		if( value < Histogram.SUB_BUCKET_COUNT)
+			return ( int) value;
+		final int shift = Long.SIZE - Long.numberOfLeadingZeros( value) - Histogram.SUB_BUCKET_BITS;
+		return Histogram.SUB_BUCKET_COUNT + ( shift - 1) * Histogram.HALF_SUB_BUCKET_COUNT
+				+ ( int) ( ( value >>> shift) - Histogram.HALF_SUB_BUCKET_COUNT);
+	}
+
+	private static long highestValueAt( final int index) {
+		if( index < Histogram.SUB_BUCKET_COUNT)
+			return index;
+		final int shift = ( index - Histogram.SUB_BUCKET_COUNT) / Histogram.HALF_SUB_BUCKET_COUNT + 1;
+		final long subBucket = ( index - Histogram.SUB_BUCKET_COUNT) % Histogram.HALF_SUB_BUCKET_COUNT + Histogram.HALF_SUB_BUCKET_COUNT;
+		return ( ( subBucket + 1) << shift) - 1;
+	}
+
+	/**
+	 * @param value
+	 * @throws IllegalArgumentException
+	 *             if the value is negative
+	 */
+	public void record( final long value) throws IllegalArgumentException {
+		if( value < 0)
+			throw new IllegalArgumentException( String.valueOf( value));
+		this.counts.incrementAndGet( Histogram.indexOf( value));
+		this.count.incrementAndGet();
+		this.total.addAndGet( value);
+		for( long max = this.max.get(); value > max && !this.max.compareAndSet( max, value); max = this.max.get())
+			;
+	}
+
+	public long getCount() {
+		return this.count.get();
+	}
+
+	/**
+	 * @return the sum of the recorded values
+	 */
+	public long getTotal() {
+		return this.total.get();
+	}
+
+	public double getMean() {
+		final long count = this.count.get();
+		return count == 0? 0: ( double) this.total.get() / count;
+	}
+
+	/**
+	 * @return the largest recorded value, exactly, or zero if nothing is recorded
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * Returns a value that the specified percentage of the recorded values are not greater than, rounded up to the highest value of its
+	 * bucket, but never above {@link #getMax()}.
+	 * 
+	 * @param percentile
+	 *            from 0 to 100
+	 * @return zero if nothing is recorded
+	 * @throws IllegalArgumentException
+	 */
+	public long getValueAtPercentile( final double percentile) throws IllegalArgumentException {
+		if( !( percentile >= 0 && percentile <= 100))
+			throw new IllegalArgumentException( String.valueOf( percentile));
+		long total = 0;
+		for( int index = 0; index < Histogram.BUCKET_COUNT; ++index)
+			total += this.counts.get( index);
+		final long rank = Math.max( 1, ( long) Math.ceil( total * percentile / 100));
+		long seen = 0;
+		for( int index = 0; index < Histogram.BUCKET_COUNT; ++index) {
+			seen += this.counts.get( index);
+			if( seen >= rank)
+				return Math.min( Histogram.highestValueAt( index), this.max.get());
+		}
+		return 0;
+	}
+
+	/**
+	 * Forgets the recorded values. Values recorded concurrently may be partly forgotten.
+	 */
+	public void reset() {
+		for( int index = 0; index < Histogram.BUCKET_COUNT; ++index)
+			this.counts.set( index, 0);
+		this.count.set( 0);
+		this.total.set( 0);
+		this.max.set( 0);
+	}
+
+	@ Override
+	public String toString() {
+		return String.format( "count=%d mean=%.1f p50=%d p90=%d p99=%d max=%d", this.getCount(), this.getMean(),
+				this.getValueAtPercentile( 50), this.getValueAtPercentile( 90), this.getValueAtPercentile( 99), this.getMax());
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args;
+
+/**
+ * Receives measurements of the parses done by an {@link AbstractParser}, see {@link AbstractParser#setMetrics(ParseMetrics)}. Methods are
+ * called by the parsing threads, so implementations must be thread-safe and should return quickly.
+ * 
+ * <p>
+ * For each parse, {@link #onPhase(Phase, long)} is called for the phases gone through, {@link #onOption(String, int)} for each option
+ * that occurred and {@link #onError(Class)} for each error the result holds, followed by {@link #onParsed(int)}. Errors found by
+ * decoding lazily are reported later, when the result is made to decode all values, possibly from another thread.
+ * </p>
+ * 
+ * @see AggregatingParseMetrics
+ * @author Bagana
+ */
+public interface ParseMetrics {
+
+	public static enum Phase {
+
+		/**
+		 * Scanning the arguments for options and operands, including reading response files.
+		 */
+		SYNTAX,
+
+		/**
+		 * Matching the operands against the operand pattern.
+		 */
+		OPERANDS,
+
+		/**
+		 * Building the result from what is found, which includes decoding the values for an eager
+		 * {@link org.musiel.args.reflect.ReflectParser}.
+		 */
+		BUILD,
+	}
+
+	/**
+	 * Measures nothing. Parsers skip all measuring, including reading the clock, when they are given this.
+	 */
+	public static final ParseMetrics NONE = new ParseMetrics() {
+
+		@ Override
+		public void onPhase( final Phase phase, final long nanos) {
+		}
+
+		@ Override
+		public void onOption( final String name, final int occurrences) {
+		}
+
+		@ Override
+		public void onError( final Class< ? extends ArgumentException> type) {
+		}
+
+		@ Override
+		public void onParsed( final int argumentCount) {
+		}
+	};
+
+	/**
+	 * @param phase
+	 * @param nanos
+	 *            time spent in the phase
+	 */
+	public void onPhase( Phase phase, long nanos);
+
+	/**
+	 * @param name
+	 *            the name the option is defined with, {@link Option#getName()}, whichever alias is used in the arguments
+	 * @param occurrences
+	 */
+	public void onOption( String name, int occurrences);
+
+	public void onError( Class< ? extends ArgumentException> type);
+
+	/**
+	 * @param argumentCount
+	 *            the number of arguments scanned, counting those read from response files instead of the references
+	 */
+	public void onParsed( int argumentCount);
+}
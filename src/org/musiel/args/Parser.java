@@ -88,6 +88,59 @@ public interface Parser< RESULT extends Result< ?>> {
 	 */
 	public RESULT parse( final String[] args, final int offset, final int length);
 
+	/**
+	 * Starts parsing command line arguments one by one, as they become available, for example, when reading them from a stream. Feeding
+	 * all arguments of an array to the returned session and then finishing it is equivalent to calling {@link #parse(String...)} with the
+	 * array.
+	 * 
+	 * @return
+	 */
+	public Session< RESULT> begin();
+
+	/**
+	 * An ongoing parse started by {@link Parser#begin()}.
+	 * 
+	 * <p>
+	 * A session is meant to be used by one thread at a time.
+	 * </p>
+	 * 
+	 * @param <RESULT>
+	 * @author Bagana
+	 */
+	public static interface Session< RESULT extends Result< ?>> {
+
+		/**
+		 * Parses the next argument.
+		 * 
+		 * @param arg
+		 * @throws IllegalStateException
+		 *             if the session is already finished
+		 */
+		public void feed( CharSequence arg) throws IllegalStateException;
+
+		/**
+		 * @return whether the session has stopped at an error because the parser is fail-fast, so that feeding it more arguments is
+		 *         useless
+		 */
+		public boolean isStopped();
+
+		/**
+		 * Ends the argument list, and returns the result. No more arguments can be fed after that.
+		 * 
+		 * @return
+		 * @throws IllegalStateException
+		 *             if the session is already finished
+		 */
+		public RESULT finish() throws IllegalStateException;
+
+		/**
+		 * Discards everything fed, so that the session can be used for another parse. A reused session keeps what the syntax allocated
+		 * for scanning, though building each result still allocates; the result returned by {@link #finish()} shares its state with the
+		 * session, and becomes invalid.
+		 */
+		public void reset();
+	}
+
 	/**
 	 * Returns a human readable description of the command line interface (typically used in help message printing), or <code>null</code>
 	 * if no information is available.
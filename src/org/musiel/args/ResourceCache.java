@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args;
+
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Strings of a resource bundle family resolved per locale and key, including the keys which are missing, so that each of them is looked
+ * up in the bundles only once. Thread safe.
+ * 
+ * @author Bagana
+ */
+final class ResourceCache {
+
+	private static final String MISSING = new String( "missing");
+
+	private final String base;
+	private final ConcurrentMap< Locale, ConcurrentMap< String, String>> strings = new ConcurrentHashMap<>();
+
+	public ResourceCache( final String base) {
+		this.base = base;
+	}
+
+	/**
+	 * @param locale
+	 * @param key
+	 * @return the string, or <code>null</code> if the bundle or the key is missing
+	 */
+	public String get( final Locale locale, final String key) {
+		ConcurrentMap< String, String> strings = this.strings.get( locale);
+		if( strings == null) {
+			final ConcurrentMap< String, String> newStrings = new ConcurrentHashMap<>();
+			strings = this.strings.putIfAbsent( locale, newStrings);
+			if( strings == null)
+				strings = newStrings;
+		}
+		String string = strings.get( key);
+		if( string == null) {
+			string = this.lookUp( locale, key);
+			strings.put( key, string);
+		}
+		return string == ResourceCache.MISSING? null: string;
+	}
+
+	private String lookUp( final Locale locale, final String key) {
+		final ResourceBundle bundle;
+		try {
+			bundle = ResourceBundle.getBundle( this.base, locale);
+		} catch( final MissingResourceException exception) {
+			return ResourceCache.MISSING;
+		}
+		return bundle.containsKey( key)? bundle.getString( key): ResourceCache.MISSING;
+	}
+
+	public void clear() {
+		this.strings.clear();
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args;
+
+import java.nio.file.NoSuchFileException;
+
+/**
+ * Indicates a response file (an argument like <code>@file</code>, see {@link ResponseFiles}) that cannot be expanded.
+ * 
+ * @author Bagana
+ */
+public class ResponseFileException extends ArgumentException {
+
+	private static final long serialVersionUID = -6904532372926394117L;
+
+	public static enum Reason {
+
+		/**
+		 * The file does not exist or cannot be read.
+		 */
+		UNREADABLE( "unreadable"),
+
+		/**
+		 * The file refers to itself, directly or through other response files.
+		 */
+		CYCLE( "cycle"),
+
+		/**
+		 * Response files are nested deeper than allowed.
+		 */
+		TOO_DEEP( "too-deep"),
+
+		/**
+		 * A quoted token is not closed before the end of the file.
+		 */
+		UNTERMINATED_QUOTE( "unterminated-quote"),
+
+		;
+
+		private final String key;
+
+		private Reason( final String key) {
+			this.key = key;
+		}
+	}
+
+	private final String file;
+	private final Reason reason;
+
+	public String getFile() {
+		return this.file;
+	}
+
+	public Reason getReason() {
+		return this.reason;
+	}
+
+	public ResponseFileException( final Throwable cause, final String file, final Reason reason, final Object... messageParameters) {
+		super( cause, ResponseFileException.class.getPackage().getName() + ".exceptions", ResponseFileException.class.getSimpleName() + "."
+				+ reason.key, ResponseFileException.parameters( file, messageParameters));
+		this.file = file;
+		this.reason = reason;
+	}
+
+	public ResponseFileException( final String file, final Reason reason, final Object... messageParameters) {
+		this( null, file, reason, messageParameters);
+	}
+
+	static ResponseFileException unreadable( final String file, final Exception exception) {
+		return new ResponseFileException( exception, file, Reason.UNREADABLE,
+				exception instanceof NoSuchFileException? "no such file": String.valueOf( exception.getMessage()));
+	}
+
+	private static Object[] parameters( final String file, final Object... messageParameters) {
+		final Object[] parameters = new Object[ messageParameters.length + 1];
+		parameters[ 0] = file;
+		System.arraycopy( messageParameters, 0, parameters, 1, messageParameters.length);
+		return parameters;
+	}
+}
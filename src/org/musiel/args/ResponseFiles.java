@@ -0,0 +1,267 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedList;
+
+/**
+ * Expands response files: an argument <code>@file</code> is replaced by the arguments written in the file, which may refer to other
+ * response files in turn. Files are read through a small buffer and tokenized as they are read, so the arguments are never collected
+ * into a list, however large the files are.
+ * 
+ * <p>
+ * By default, arguments are separated by whitespace. Characters between single quotes are taken literally; between double quotes or
+ * outside quotes, a backslash escapes the character following it. In {@link #setNulDelimited(boolean) NUL-delimited} files, as written
+ * by <code>find -print0</code> or <code>xargs -0</code>, every argument is terminated by a NUL character instead, and nothing is quoted.
+ * </p>
+ * 
+ * <p>
+ * Relative paths are resolved against the working directory, including those in response files. An instance can be shared by threads,
+ * as long as it is not modified.
+ * </p>
+ * 
+ * @author Bagana
+ */
+public class ResponseFiles {
+
+	/**
+	 * Receives the arguments and errors found when expanding a response file.
+	 * 
+	 * @author Bagana
+	 */
+	public static interface Sink {
+
+		/**
+		 * @param token
+		 *            an argument, which is never a reference to another response file
+		 * @return <code>false</code> to stop expanding
+		 */
+		public boolean onToken( String token);
+
+		/**
+		 * @param error
+		 * @return <code>false</code> to stop expanding
+		 */
+		public boolean onError( ResponseFileException error);
+	}
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private Charset charset = Charset.defaultCharset();
+	private boolean nulDelimited = false;
+	private int maxDepth = 16;
+
+	public Charset getCharset() {
+		return this.charset;
+	}
+
+	public ResponseFiles setCharset( final Charset charset) {
+		if( charset == null)
+			throw new NullPointerException();
+		this.charset = charset;
+		return this;
+	}
+
+	public boolean isNulDelimited() {
+		return this.nulDelimited;
+	}
+
+	public ResponseFiles setNulDelimited( final boolean nulDelimited) {
+		this.nulDelimited = nulDelimited;
+		return this;
+	}
+
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+	/**
+	 * @param maxDepth
+	 *            how deep response files can be nested, 1 if they cannot refer to other response files at all
+	 * @return
+	 */
+	public ResponseFiles setMaxDepth( final int maxDepth) {
+		if( maxDepth < 1)
+			throw new IllegalArgumentException( "maximum depth must be positive");
+		this.maxDepth = maxDepth;
+		return this;
+	}
+
+	/**
+	 * @param arg
+	 * @return whether the argument refers to a response file
+	 */
+	public static boolean isReference( final CharSequence arg) {
+		return arg.length() > 1 && arg.charAt( 0) == '@';
+	}
+
+	/**
+	 * Expands a reference to a response file, passing the arguments in it to the sink in order.
+	 * 
+	 * @param reference
+	 *            the argument referring to the file, <code>@</code> included
+	 * @param sink
+	 * @return <code>false</code> if stopped by the sink
+	 */
+	public boolean expand( final CharSequence reference, final Sink sink) {
+		if( !ResponseFiles.isReference( reference))
+			throw new IllegalArgumentException( "not a response file reference: " + reference);
+		return this.expand( reference.subSequence( 1, reference.length()).toString(), sink, new LinkedList< Path>());
+	}
+
+	private boolean expand( final String file, final Sink sink, final LinkedList< Path> including) {
+		if( including.size() >= this.maxDepth) {
+			return sink.onError( new ResponseFileException( file, ResponseFileException.Reason.TOO_DEEP, this.maxDepth));
+		}
+
+		final Path path;
+		try {
+			path = Paths.get( file).toRealPath();
+		} catch( IOException | InvalidPathException exception) {
+			return sink.onError( ResponseFileException.unreadable( file, exception));
+		}
+		if( including.contains( path)) {
+			return sink.onError( new ResponseFileException( file, ResponseFileException.Reason.CYCLE));
+		}
+
+		including.push( path);
+		try( final FileChannel channel = FileChannel.open( path, StandardOpenOption.READ)) {
+			return new Tokenizer( file, sink, including).read( channel);
+		} catch( final IOException exception) {
+			return sink.onError( ResponseFileException.unreadable( file, exception));
+		} finally {
+			including.pop();
+		}
+	}
+
+	private final class Tokenizer {
+
+		private final String file;
+		private final Sink sink;
+		private final LinkedList< Path> including;
+
+		private final StringBuilder token = new StringBuilder();
+		private boolean inToken = false;
+		private char quote = 0; // the opening quote, if in a quoted part
+		private boolean escaped = false;
+
+		private Tokenizer( final String file, final Sink sink, final LinkedList< Path> including) {
+			this.file = file;
+			this.sink = sink;
+			this.including = including;
+		}
+
+		private boolean read( final FileChannel channel) throws IOException {
+			final CharsetDecoder decoder =
+					ResponseFiles.this.charset.newDecoder().onMalformedInput( CodingErrorAction.REPORT)
+							.onUnmappableCharacter( CodingErrorAction.REPORT);
+			final ByteBuffer bytes = ByteBuffer.allocate( ResponseFiles.BUFFER_SIZE);
+			final CharBuffer chars = CharBuffer.allocate( ResponseFiles.BUFFER_SIZE);
+			for( boolean end = false; !end;) {
+				end = channel.read( bytes) < 0;
+				bytes.flip();
+				CoderResult result;
+				do {
+					result = decoder.decode( bytes, chars, end);
+					if( !this.consume( result, chars))
+						return false;
+				} while( result.isOverflow());
+				bytes.compact();
+			}
+			CoderResult result;
+			do {
+				result = decoder.flush( chars);
+				if( !this.consume( result, chars))
+					return false;
+			} while( result.isOverflow());
+
+			if( this.quote != 0) {
+				return this.sink.onError( new ResponseFileException( this.file, ResponseFileException.Reason.UNTERMINATED_QUOTE));
+			}
+			if( this.escaped) // a backslash at the very end stands for itself
+				this.token.append( '\\');
+			return !this.inToken && this.token.length() == 0 || this.emit();
+		}
+
+		private boolean consume( final CoderResult result, final CharBuffer chars) throws CharacterCodingException {
+			if( result.isError())
+				result.throwException();
+			chars.flip();
+			try {
+				while( chars.hasRemaining())
+					if( !this.accept( chars.get()))
+						return false;
+				return true;
+			} finally {
+				chars.clear();
+			}
+		}
+
+		private boolean accept( final char character) {
+			if( ResponseFiles.this.nulDelimited) {
+				if( character == 0)
+					return this.emit();
+				this.token.append( character);
+				return true;
+			}
+
+			if( this.escaped) {
+				this.escaped = false;
+				this.token.append( character);
+			} else if( this.quote == '\'') {
+				if( character == '\'')
+					this.quote = 0;
+				else
+					this.token.append( character);
+			} else if( character == '\\')
+				this.escaped = this.inToken = true;
+			else if( this.quote == '"') {
+				if( character == '"')
+					this.quote = 0;
+				else
+					this.token.append( character);
+			} else if( Character.isWhitespace( character))
+				return !this.inToken || this.emit();
+			else if( character == '\'' || character == '"') {
+				this.quote = character;
+				this.inToken = true;
+			} else {
+				this.token.append( character);
+				this.inToken = true;
+			}
+			return true;
+		}
+
+		private boolean emit() {
+			final String token = this.token.toString();
+			this.token.setLength( 0);
+			this.inToken = false;
+			if( ResponseFiles.isReference( token))
+				return ResponseFiles.this.expand( token.substring( 1), this.sink, this.including);
+			return this.sink.onToken( token);
+		}
+	}
+}
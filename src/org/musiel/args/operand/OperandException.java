@@ -29,7 +29,12 @@ public class OperandException extends ArgumentException {
 	}
 
 	public OperandException( final Reason reason) {
-		super( OperandException.class.getPackage().getName() + ".exceptions", OperandException.class.getSimpleName() + "." + reason.name());
+		this( true, reason);
+	}
+
+	public OperandException( final boolean stackTraceEnabled, final Reason reason) {
+		super( stackTraceEnabled, null, OperandException.class.getPackage().getName() + ".exceptions",
+				OperandException.class.getSimpleName() + "." + reason.name());
 		this.reason = reason;
 	}
 }
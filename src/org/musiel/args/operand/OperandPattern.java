@@ -14,11 +14,10 @@ package org.musiel.args.operand;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -76,6 +75,7 @@ public class OperandPattern {
 						.compile( tokens.toArray( new String[ tokens.size()]), 0, tokens.size());
 		matcher.pattern = pattern;
 		matcher.names = Collections.unmodifiableList( new LinkedList<>( names));
+		matcher.automaton = new Automaton( matcher);
 		return matcher;
 	}
 
@@ -144,6 +144,18 @@ public class OperandPattern {
 
 	private final State initialState;
 	private final Set< State> nonInitialStates = new HashSet<>();
+	// built once by compile( String), after which the state graph is never modified
+	private Automaton automaton;
+
+	// the initial state is always at index 0
+	private State[] getStates() {
+		final State[] states = new State[ this.nonInitialStates.size() + 1];
+		states[ 0] = this.initialState;
+		int index = 1;
+		for( final State state: this.nonInitialStates)
+			states[ index++] = state;
+		return states;
+	}
 
 	// ◎
 	private OperandPattern() {
@@ -236,85 +248,80 @@ public class OperandPattern {
 	}
 
 	public String[][] findAmbiguityExample() {
-		final State[] states = new State[ this.nonInitialStates.size() + 1];
-		states[ 0] = this.initialState; // initial state is assumed at index 0 below
-		int index = 1;
-		for( final State state: this.nonInitialStates)
-			states[ index++] = state;
+		final State[] states = this.getStates(); // initial state is assumed at index 0 below
 		final Map< State, Integer> stateIndices = new HashMap<>();
 		for( int i = 0; i < states.length; ++i)
 			stateIndices.put( states[ i], Integer.valueOf( i));
 
 		// an additional vertex is added to represent a single final state, every actual final state has a transition to there
+		final int end = states.length;
 		final int graphSize = states.length + 1;
-		final boolean[][] graph = new boolean[ graphSize][ graphSize];
-		for( final State from: states)
-			for( final State to: from.transitions.keySet())
-				graph[ stateIndices.get( from).intValue()][ stateIndices.get( to).intValue()] = true;
-		// this is adding additional transitions mentioned above
-		for( final State state: states)
-			if( state.finalState)
-				graph[ stateIndices.get( state).intValue()][ states.length] = true;
-
-		// now the task is to find a pair of different paths from state 0 to the final state with the same length. we construct a new graph
-		// of V * V * { true, false}, where each V corresponds to one of the paths, and the boolean dimension indicates whether the two
-		// paths have already been different
-		final boolean[][] paired = new boolean[ graphSize * graphSize * 2][ graphSize * graphSize * 2];
-		final boolean[] BOOL = new boolean[]{ false, true};
-		for( int from1 = 0; from1 < graphSize; ++from1)
-			for( int from2 = 0; from2 < graphSize; ++from2)
-				for( int fromD = 0, from = graphSize * 2 * from1 + 2 * from2; fromD < 2; ++fromD, ++from)
-					for( int to1 = 0; to1 < graphSize; ++to1)
-						for( int to2 = 0; to2 < graphSize; ++to2)
-							for( int toD = 0, to = graphSize * 2 * to1 + 2 * to2; toD < 2; ++toD, ++to)
-								paired[ from][ to] =
-										graph[ from1][ to1] && graph[ from2][ to2] && BOOL[ toD] == ( BOOL[ fromD] || from1 != from2 || to1 != to2);
-		// 0 = initial state WITHOUT separation; .length - 1 = the added final state WITH separation.
-		// If such a path exists, it means there are at least two different paths connects the initial state and the added final state in
-		// the same number of steps
-		final int[] pathPair = OperandPattern.findShortestPath( paired, 0, paired.length - 1);
-		if( pathPair == null)
-			return null;
-
-		// -1 is to drop the initial step. the added final step never got into the result of shorted path searching
-		final String[][] paths = new String[ 2][ pathPair.length - 1];
-		State state1 = this.initialState;
-		State state2 = this.initialState;
-		for( int i = 1; i < pathPair.length; ++i) {
-			final State nextState1 = states[ pathPair[ i] / 2 / graphSize];
-			final State nextState2 = states[ pathPair[ i] / 2 % graphSize];
-			paths[ 0][ i - 1] = state1.transitions.get( nextState1);
-			paths[ 1][ i - 1] = state2.transitions.get( nextState2);
-			state1 = nextState1;
-			state2 = nextState2;
+		final int[][] successors = new int[ graphSize][];
+		for( int from = 0; from < states.length; ++from) {
+			final int[] row = new int[ states[ from].transitions.size() + ( states[ from].finalState? 1: 0)];
+			int count = 0;
+			for( final State to: states[ from].transitions.keySet())
+				row[ count++] = stateIndices.get( to).intValue();
+			Arrays.sort( row, 0, count);
+			// this is adding additional transitions mentioned above
+			if( states[ from].finalState)
+				row[ count] = end;
+			successors[ from] = row;
 		}
-		return paths;
-	}
-
-	private static int[] findShortestPath( final boolean[][] graph, final int from, final int to) {
-		final LinkedHashMap< Integer, int[]> toBeVisited = new LinkedHashMap<>();
-		toBeVisited.put( Integer.valueOf( from), new int[]{});
-		final boolean[] visitedOrQueued = new boolean[ graph.length];
-		visitedOrQueued[ from] = true;
-		while( !toBeVisited.isEmpty()) {
-			final Integer beingVisited = toBeVisited.keySet().iterator().next();
-			final int[] path = toBeVisited.remove( beingVisited);
-			final int[] updatedPath = Arrays.copyOf( path, path.length + 1);
-			updatedPath[ updatedPath.length - 1] = beingVisited.intValue();
-			final boolean[] adjacencyRow = graph[ beingVisited.intValue()];
-			for( int connected = 0; connected < adjacencyRow.length; ++connected)
-				if( adjacencyRow[ connected]) {
-					if( connected == to)
-						return updatedPath; // see? to is not added to the result
-					if( visitedOrQueued[ connected])
+		successors[ end] = new int[]{};
+
+		// now the task is to find a pair of different paths from state 0 to the final state with the same length. we search a graph of
+		// V * V * { true, false}, where each V corresponds to one of the paths, and the boolean dimension indicates whether the two paths
+		// have already been different. only pairs reachable from ( 0, 0, false) are ever created, numbered in the order they are found,
+		// so the numbers are also the breadth first queue, and each pair keeps the number of the pair it is found from.
+		// If ( end, end, true) is reachable, it means there are at least two different paths connecting the initial state and the added
+		// final state in the same number of steps, and the first time it is found gives a shortest example
+		final Map< Long, Integer> numbers = new HashMap<>();
+		long[] pairs = new long[ 16];
+		int[] parents = new int[ 16];
+		pairs[ 0] = 0; // ( 0, 0, false)
+		parents[ 0] = -1;
+		numbers.put( Long.valueOf( pairs[ 0]), Integer.valueOf( 0));
+		int size = 1;
+		for( int current = 0; current < size; ++current) {
+			final boolean diverged = pairs[ current] % 2 != 0;
+			final int from1 = ( int) ( pairs[ current] / 2 / graphSize);
+			final int from2 = ( int) ( pairs[ current] / 2 % graphSize);
+			for( final int to1: successors[ from1])
+				for( final int to2: successors[ from2]) {
+					final boolean toDiverged = diverged || to1 != to2;
+					if( to1 == end && to2 == end && toDiverged)
+						return this.toPaths( states, graphSize, pairs, parents, current);
+					final Long pair = Long.valueOf( ( ( long) to1 * graphSize + to2) * 2 + ( toDiverged? 1: 0));
+					if( numbers.containsKey( pair))
 						continue;
-					visitedOrQueued[ connected] = true;
-					toBeVisited.put( Integer.valueOf( connected), updatedPath);
+					if( size == pairs.length) {
+						pairs = Arrays.copyOf( pairs, size * 2);
+						parents = Arrays.copyOf( parents, size * 2);
+					}
+					pairs[ size] = pair.longValue();
+					parents[ size] = current;
+					numbers.put( pair, Integer.valueOf( size++));
 				}
 		}
 		return null;
 	}
 
+	private String[][] toPaths( final State[] states, final int graphSize, final long[] pairs, final int[] parents, final int last) {
+		// the initial pair is not a step, and the added final step never got into the pairs
+		int length = 0;
+		for( int pair = last; parents[ pair] >= 0; pair = parents[ pair])
+			++length;
+
+		final String[][] paths = new String[ 2][ length];
+		for( int pair = last, index = length - 1; index >= 0; pair = parents[ pair], --index) {
+			final long parent = pairs[ parents[ pair]];
+			paths[ 0][ index] = states[ ( int) ( parent / 2 / graphSize)].transitions.get( states[ ( int) ( pairs[ pair] / 2 / graphSize)]);
+			paths[ 1][ index] = states[ ( int) ( parent / 2 % graphSize)].transitions.get( states[ ( int) ( pairs[ pair] / 2 % graphSize)]);
+		}
+		return paths;
+	}
+
 	public boolean isMoreThanOneOperandsPossible() {
 		for( final State state: this.initialState.transitions.keySet())
 			if( !state.transitions.isEmpty())
@@ -410,53 +417,197 @@ public class OperandPattern {
 	}
 
 	public Map< String, List< String>> match( final String... operands) throws OperandException {
-		final List< String> list = new LinkedList<>();
-		Collections.addAll( list, operands);
-		return this.match( list);
+		return this.match( Arrays.asList( operands));
 	}
 
 	// unmodifiable map with unmodifiable values, contains all operand names
 	public Map< String, List< String>> match( final List< String> operands) throws OperandException {
-		List< Explorer> explorers = new LinkedList<>();
-		explorers.add( new Explorer( new String[ 0], this.initialState));
-		for( int i = 0; i < operands.size(); ++i) {
-			final List< Explorer> updatedExplorers = new LinkedList<>();
-			for( final Explorer explorer: explorers)
-				for( final Entry< State, String> transition: explorer.state.transitions.entrySet()) {
-					final String[] updatedPath = Arrays.copyOf( explorer.path, explorer.path.length + 1);
-					updatedPath[ updatedPath.length - 1] = transition.getValue();
-					updatedExplorers.add( new Explorer( updatedPath, transition.getKey()));
+		return this.match( operands, true);
+	}
+
+	/**
+	 * @param operands
+	 * @param stackTraceEnabled
+	 *            whether an {@link OperandException} thrown fills in its stack trace
+	 * @return
+	 * @throws OperandException
+	 */
+	public Map< String, List< String>> match( final List< String> operands, final boolean stackTraceEnabled) throws OperandException {
+		final int[] path = this.automaton.run( operands.size(), stackTraceEnabled);
+
+		final int[] counts = new int[ this.names.size()];
+		for( int i = 1; i < path.length; ++i)
+			++counts[ path[ i]];
+		final List< List< String>> lists = new ArrayList<>( this.names.size());
+		for( final int count: counts)
+			lists.add( count == 0? Collections.< String>emptyList(): new ArrayList< String>( count));
+		int i = 0;
+		for( final String operand: operands)
+			lists.get( path[ ++i]).add( operand);
+
+		final Map< String, List< String>> result = new TreeMap<>();
+		i = 0;
+		for( final String operandName: this.names) {
+			final List< String> list = lists.get( i++);
+			result.put( operandName, list.isEmpty()? list: Collections.unmodifiableList( list));
+		}
+		return Collections.unmodifiableMap( result);
+	}
+
+	/**
+	 * The deterministic counterpart of the state graph, built by subset construction. Operands are never told apart by their values, so
+	 * the input alphabet has only one symbol, and every deterministic state has at most one successor. A match is a forward walk along the
+	 * successors, followed by a backward walk that picks the only state of each step leading to the accepting state of the next.
+	 * 
+	 * <p>
+	 * The chain can be as long as the product of the periods of the loops in the pattern, so only its first {@link #MAX_SUBSETS} states
+	 * are built; a longer match goes on by computing the subsets of the remaining steps from those of the graph.
+	 * </p>
+	 */
+	private static class Automaton {
+
+		private static final int MAX_SUBSETS = 256;
+		// the successor of the last deterministic state built, if the chain goes on
+		private static final int NOT_BUILT = -2;
+
+		// deterministic states: the next one after consuming an operand (-1 if none), and the states of the graph it stands for
+		private final int[] successors;
+		private final BitSet[] members;
+		// graph states: whether final, outgoing transitions as target state indices, and incoming transitions as source state indices
+		// and operand name indices
+		private final boolean[] finalStates;
+		private final int[][] targets;
+		private final int[][] predecessors;
+		private final int[][] labels;
+
+		Automaton( final OperandPattern pattern) {
+			final State[] states = pattern.getStates();
+			final Map< State, Integer> stateIndices = new HashMap<>();
+			for( int i = 0; i < states.length; ++i)
+				stateIndices.put( states[ i], Integer.valueOf( i));
+			final Map< String, Integer> nameIndices = new HashMap<>();
+			for( final String name: pattern.names)
+				nameIndices.put( name, Integer.valueOf( nameIndices.size()));
+
+			this.finalStates = new boolean[ states.length];
+			final int[] incoming = new int[ states.length];
+			for( int i = 0; i < states.length; ++i) {
+				this.finalStates[ i] = states[ i].finalState;
+				for( final State to: states[ i].transitions.keySet())
+					++incoming[ stateIndices.get( to).intValue()];
+			}
+			this.targets = new int[ states.length][];
+			this.predecessors = new int[ states.length][];
+			this.labels = new int[ states.length][];
+			for( int i = 0; i < states.length; ++i) {
+				this.targets[ i] = new int[ states[ i].transitions.size()];
+				this.predecessors[ i] = new int[ incoming[ i]];
+				this.labels[ i] = new int[ incoming[ i]];
+			}
+			for( int i = 0; i < states.length; ++i) {
+				int k = 0;
+				for( final Entry< State, String> transition: states[ i].transitions.entrySet()) {
+					final int to = stateIndices.get( transition.getKey()).intValue();
+					this.targets[ i][ k++] = to;
+					this.predecessors[ to][ --incoming[ to]] = i;
+					this.labels[ to][ incoming[ to]] = nameIndices.get( transition.getValue()).intValue();
 				}
-			explorers = updatedExplorers;
+			}
+
+			// with a single input symbol the subsets form a chain, which either ends or loops back into itself
+			final List< BitSet> subsets = new ArrayList<>();
+			final List< Integer> successors = new ArrayList<>();
+			final Map< BitSet, Integer> subsetIndices = new HashMap<>();
+			BitSet subset = new BitSet( states.length);
+			subset.set( 0);
+			subsets.add( subset);
+			subsetIndices.put( subset, Integer.valueOf( 0));
+			while( true) {
+				final BitSet next = this.step( subset);
+				if( next.isEmpty()) {
+					successors.add( Integer.valueOf( -1));
+					break;
+				}
+				final Integer known = subsetIndices.get( next);
+				if( known != null) {
+					successors.add( known);
+					break;
+				}
+				if( subsets.size() == Automaton.MAX_SUBSETS) {
+					successors.add( Integer.valueOf( Automaton.NOT_BUILT));
+					break;
+				}
+				successors.add( Integer.valueOf( subsets.size()));
+				subsetIndices.put( next, Integer.valueOf( subsets.size()));
+				subsets.add( subset = next);
+			}
+			this.members = subsets.toArray( new BitSet[ subsets.size()]);
+			this.successors = new int[ successors.size()];
+			for( int i = 0; i < this.successors.length; ++i)
+				this.successors[ i] = successors.get( i).intValue();
+		}
 
-			if( explorers.isEmpty())
-				throw new OperandException( Reason.TOO_MANY);
+		// the states of the graph reachable from the specified ones by consuming an operand
+		private BitSet step( final BitSet from) {
+			final BitSet next = new BitSet( this.finalStates.length);
+			for( int state = from.nextSetBit( 0); state >= 0; state = from.nextSetBit( state + 1))
+				for( final int to: this.targets[ state])
+					next.set( to);
+			return next;
 		}
 
-		final Set< String[]> haltingPaths = new HashSet<>();
-		for( final Explorer explorer: explorers)
-			if( explorer.state.finalState)
-				haltingPaths.add( explorer.path);
-		if( haltingPaths.isEmpty())
-			throw new OperandException( Reason.TOO_FEW);
-		if( haltingPaths.size() > 1)
-			throw new IllegalStateException( "the pattern is ambiguous, should not be used for matching");
-		final String[] path = haltingPaths.iterator().next();
+		// returns the operand name indices of the only accepting path of the specified length, at indices 1 to length
+		int[] run( final int length, final boolean stackTraceEnabled) throws OperandException {
+			final int[] trace = new int[ length + 1];
+			// the subsets of the steps beyond the deterministic states built, from step built + 1 on
+			BitSet[] overflow = null;
+			int built = length;
+			for( int i = 1; i <= length; ++i) {
+				if( overflow != null) {
+					final BitSet next = this.step( overflow[ i - 1 - built]);
+					if( next.isEmpty())
+						throw new OperandException( stackTraceEnabled, Reason.TOO_MANY);
+					overflow[ i - built] = next;
+				} else if( ( trace[ i] = this.successors[ trace[ i - 1]]) == Automaton.NOT_BUILT) {
+					built = i - 1;
+					overflow = new BitSet[ length - built + 1];
+					overflow[ 0] = this.members[ trace[ built]];
+					--i;
+				} else if( trace[ i] < 0)
+					throw new OperandException( stackTraceEnabled, Reason.TOO_MANY);
+			}
 
-		final Map< String, List< String>> result = new TreeMap<>();
-		final Iterator< String> operandIterator = operands.iterator();
-		for( final String operandName: path) {
-			List< String> list = result.get( operandName);
-			if( list == null)
-				result.put( operandName, list = new LinkedList<>());
-			list.add( operandIterator.next());
+			int state = -1;
+			final BitSet last = this.members( trace, overflow, built, length);
+			for( int candidate = last.nextSetBit( 0); candidate >= 0; candidate = last.nextSetBit( candidate + 1))
+				if( this.finalStates[ candidate])
+					if( state < 0)
+						state = candidate;
+					else
+						throw new IllegalStateException( "the pattern is ambiguous, should not be used for matching");
+			if( state < 0)
+				throw new OperandException( stackTraceEnabled, Reason.TOO_FEW);
+
+			// the deterministic state of step i is no longer needed once step i + 1 is resolved, so the trace is overwritten in place
+			for( int i = length; i > 0; --i) {
+				final BitSet previous = this.members( trace, overflow, built, i - 1);
+				final int[] predecessors = this.predecessors[ state];
+				int found = -1;
+				for( int k = 0; k < predecessors.length; ++k)
+					if( previous.get( predecessors[ k]))
+						if( found < 0)
+							found = k;
+						else
+							throw new IllegalStateException( "the pattern is ambiguous, should not be used for matching");
+				trace[ i] = this.labels[ state][ found];
+				state = predecessors[ found];
+			}
+			return trace;
+		}
+
+		private BitSet members( final int[] trace, final BitSet[] overflow, final int built, final int step) {
+			return step > built? overflow[ step - built]: this.members[ trace[ step]];
 		}
-		for( final Entry< String, List< String>> entry: result.entrySet())
-			entry.setValue( Collections.unmodifiableList( new ArrayList<>( entry.getValue())));
-		for( final String operandName: this.names)
-			if( !result.containsKey( operandName))
-				result.put( operandName, Collections.< String>emptyList());
-		return Collections.unmodifiableMap( result);
 	}
 
 	private static class State {
@@ -46,8 +46,8 @@ public @ interface BigIntegerValue {
 		}
 
 		@ Override
-		protected BigInteger cast( final BigInteger decoded) {
-			return decoded;
+		public BigInteger decode( final String string) throws DecoderException {
+			return this.decodeInteger( string);
 		}
 	}
 }
@@ -17,7 +17,6 @@ import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.util.HashSet;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -33,41 +32,42 @@ public @ interface BooleanValue {
 
 	public String[] falseValues() default { "FALSE", "NO", "F", "N"};
 
-	static class Decoder implements org.musiel.args.reflect.Decoder< Boolean> {
+	static class Decoder implements org.musiel.args.reflect.Decoder< Boolean>, PrimitiveDecoder.OfBoolean {
 
-		private final boolean caseSensitive;
-		private final Set< String> trueValues = new TreeSet<>();
-		private final Set< String> falseValues = new TreeSet<>();
+		private final LookupTable< Boolean> values;
 
 		public Decoder( final BooleanValue annotation) {
-			this.caseSensitive = annotation.caseSensitive();
+			this.values = new LookupTable<>( annotation.caseSensitive(), annotation.trueValues().length + annotation.falseValues().length);
 			for( final String trueValue: annotation.trueValues())
-				this.trueValues.add( this.caseSensitive? trueValue: trueValue.toUpperCase());
+				this.values.put( trueValue, Boolean.TRUE);
+			final Set< String> intersection = new TreeSet<>();
 			for( final String falseValue: annotation.falseValues())
-				this.falseValues.add( this.caseSensitive? falseValue: falseValue.toUpperCase());
-			final HashSet< String> intersection = new HashSet<>( this.trueValues);
-			intersection.retainAll( this.falseValues);
+				if( Boolean.TRUE.equals( this.values.put( falseValue, Boolean.FALSE)))
+					intersection.add( annotation.caseSensitive()? falseValue: falseValue.toUpperCase());
 			if( !intersection.isEmpty())
 				throw new IllegalArgumentException( "common elements exist in trueValues and falseValue: " + intersection);
 		}
 
 		public Decoder() {
-			this.caseSensitive = false;
-			this.trueValues.add( "TRUE");
-			this.trueValues.add( "YES");
-			this.falseValues.add( "FALSE");
-			this.falseValues.add( "NO");
+			this.values = new LookupTable<>( false, 4);
+			this.values.put( "TRUE", Boolean.TRUE);
+			this.values.put( "YES", Boolean.TRUE);
+			this.values.put( "FALSE", Boolean.FALSE);
+			this.values.put( "NO", Boolean.FALSE);
 		}
 
 		@ Override
 		public Boolean decode( final String string) throws DecoderException {
-			final String stringToSearch = this.caseSensitive? string: string.toUpperCase();
-			if( this.trueValues.contains( stringToSearch))
-				return Boolean.TRUE;
-			if( this.falseValues.contains( stringToSearch))
-				return Boolean.FALSE;
-			throw new DecoderException( BooleanValue.class.getPackage().getName() + ".exceptions", "invalid-value", "a boolean value",
-					string);
+			return Boolean.valueOf( this.decodeBoolean( string));
+		}
+
+		@ Override
+		public boolean decodeBoolean( final String string) throws DecoderException {
+			final Boolean value = this.values.get( string);
+			if( value != null)
+				return value.booleanValue();
+			throw new DecoderException( false, BooleanValue.class.getPackage().getName() + ".exceptions", "invalid-value",
+					"a boolean value", string);
 		}
 	}
 }
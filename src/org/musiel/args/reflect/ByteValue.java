@@ -17,7 +17,6 @@ import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.math.BigInteger;
 
 @ Retention( RetentionPolicy.RUNTIME)
 @ Target( ElementType.METHOD)
@@ -31,7 +30,7 @@ public @ interface ByteValue {
 
 	public String max() default "" + Byte.MAX_VALUE;
 
-	static class Decoder extends IntegerNumberDecoder< Byte> {
+	static class Decoder extends IntegerNumberDecoder< Byte> implements PrimitiveDecoder.OfByte {
 
 		public Decoder( final int radix, final String min, final String max) {
 			super( radix, min, max);
@@ -46,8 +45,13 @@ public @ interface ByteValue {
 		}
 
 		@ Override
-		protected Byte cast( final BigInteger decoded) {
-			return Byte.valueOf( decoded.byteValue());
+		public Byte decode( final String string) throws DecoderException {
+			return Byte.valueOf( this.decodeByte( string));
+		}
+
+		@ Override
+		public byte decodeByte( final String string) throws DecoderException {
+			return ( byte) this.decodePrimitive( string);
 		}
 	}
 }
@@ -24,7 +24,7 @@ import java.lang.annotation.Target;
 @ DecoderAnnotation( CharacterValue.Decoder.class)
 public @ interface CharacterValue {
 
-	static class Decoder implements org.musiel.args.reflect.Decoder< Character> {
+	static class Decoder implements org.musiel.args.reflect.Decoder< Character>, PrimitiveDecoder.OfChar {
 
 		public Decoder( final CharacterValue annotation) {
 		}
@@ -34,9 +34,14 @@ public @ interface CharacterValue {
 
 		@ Override
 		public Character decode( final String string) throws DecoderException {
+			return this.decodeChar( string);
+		}
+
+		@ Override
+		public char decodeChar( final String string) throws DecoderException {
 			if( string.length() != 1)
-				throw new DecoderException( CharacterValue.class.getPackage().getName() + ".exceptions", "invalid-value", "a character",
-						string);
+				throw new DecoderException( false, CharacterValue.class.getPackage().getName() + ".exceptions", "invalid-value",
+						"a character", string);
 			return string.charAt( 0);
 		}
 	}
@@ -17,6 +17,16 @@ import java.util.Locale;
 
 import org.musiel.args.ArgumentException;
 
+/**
+ * Indicates that a value cannot be decoded.
+ * 
+ * <p>
+ * The decoders of this package create theirs without stack traces, as they only become the causes of the exceptions reported by
+ * {@link ReflectParser}, which fill in their stack traces as the parser is {@link ReflectParser#setStackTraceEnabled(boolean) set} to.
+ * </p>
+ * 
+ * @author Bagana
+ */
 public class DecoderException extends ArgumentException {
 
 	private static final long serialVersionUID = 7996264514095528394L;
@@ -24,23 +34,41 @@ public class DecoderException extends ArgumentException {
 	private final DecoderException cause;
 
 	public DecoderException( final String message) {
-		super( message);
+		this( true, message);
+	}
+
+	public DecoderException( final boolean stackTraceEnabled, final String message) {
+		super( stackTraceEnabled, null, message);
 		this.cause = null;
 	}
 
 	public DecoderException( final String messageBundleBase, final String messageKey, final Object... messageParameters) {
-		super( messageBundleBase, messageKey, messageParameters);
+		this( true, messageBundleBase, messageKey, messageParameters);
+	}
+
+	public DecoderException( final boolean stackTraceEnabled, final String messageBundleBase, final String messageKey,
+			final Object... messageParameters) {
+		super( stackTraceEnabled, null, messageBundleBase, messageKey, messageParameters);
 		this.cause = null;
 	}
 
 	public DecoderException( final DecoderException cause, final String message) {
-		super( message + ": " + cause.getMessage());
+		this( true, cause, message);
+	}
+
+	public DecoderException( final boolean stackTraceEnabled, final DecoderException cause, final String message) {
+		super( stackTraceEnabled, null, message + ": " + cause.getMessage());
 		this.cause = cause;
 	}
 
 	public DecoderException( final DecoderException cause, final String messageBundleBase, final String messageKey,
 			final Object... messageParameters) {
-		super( messageBundleBase, messageKey, messageParameters);
+		this( true, cause, messageBundleBase, messageKey, messageParameters);
+	}
+
+	public DecoderException( final boolean stackTraceEnabled, final DecoderException cause, final String messageBundleBase,
+			final String messageKey, final Object... messageParameters) {
+		super( stackTraceEnabled, null, messageBundleBase, messageKey, messageParameters);
 		this.cause = cause;
 	}
 
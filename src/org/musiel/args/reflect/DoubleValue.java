@@ -25,7 +25,7 @@ import java.math.BigDecimal;
 @ DecoderAnnotation( DoubleValue.Decoder.class)
 public @ interface DoubleValue {
 
-	static class Decoder extends FloatNumberDecoder< Double> {
+	static class Decoder extends FloatNumberDecoder< Double> implements PrimitiveDecoder.OfDouble {
 
 		public Decoder( final DoubleValue annotation) {
 			this();
@@ -39,5 +39,10 @@ public @ interface DoubleValue {
 		protected Double cast( final BigDecimal decoded) {
 			return Double.valueOf( decoded.doubleValue());
 		}
+
+		@ Override
+		public double decodeDouble( final String string) throws DecoderException {
+			return this.decodeDecimal( string).doubleValue();
+		}
 	}
 }
@@ -12,22 +12,27 @@
  */
 package org.musiel.args.reflect;
 
-import java.util.Arrays;
-
 class EnumDecoder< E extends Enum< ?>> implements Decoder< E> {
 
-	private final Class< E> enumType;
+	private final LookupTable< E> constants;
+	private final String message;
 
 	public EnumDecoder( final Class< E> enumType) {
-		this.enumType = enumType;
+		final E[] constants = enumType.getEnumConstants();
+		this.constants = new LookupTable<>( true, constants.length);
+		final StringBuilder message = new StringBuilder( "must be one of following values: ");
+		for( int index = 0; index < constants.length; ++index) {
+			this.constants.put( constants[ index].name(), constants[ index]);
+			message.append( index > 0? ", ": "").append( constants[ index]);
+		}
+		this.message = message.toString();
 	}
 
 	@ Override
 	public E decode( final String string) throws DecoderException {
-		for( final E constant: this.enumType.getEnumConstants())
-			if( string.equals( constant.name()))
-				return constant;
-		throw new DecoderException( "must be one of following values: "
-				+ Arrays.toString( this.enumType.getEnumConstants()).substring( 1).replaceAll( "\\]$", ""));
+		final E constant = this.constants.get( string);
+		if( constant == null)
+			throw new DecoderException( false, this.message);
+		return constant;
 	}
 }
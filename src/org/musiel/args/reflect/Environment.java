@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Where the values of environment variables named by {@link EnvironmentVariable} come from. {@link ReflectParser} takes a
+ * {@link #snapshot(Collection) snapshot} of the variables its model declares once per parse, or once for all parses if the environment
+ * is already a snapshot, like the ones returned by {@link #of(Map)}.
+ * 
+ * @author Bagana
+ */
+public abstract class Environment {
+
+	/**
+	 * @param name
+	 * @return the value of the variable, or <code>null</code> if it is not defined
+	 */
+	public abstract String get( String name);
+
+	/**
+	 * @param names
+	 * @return an immutable environment holding the current values of the named variables
+	 */
+	public Environment snapshot( final Collection< String> names) {
+		if( names.isEmpty())
+			return Environment.EMPTY;
+		final Map< String, String> variables = new HashMap<>();
+		for( final String name: names) {
+			final String value = this.get( name);
+			if( value != null)
+				variables.put( name, value);
+		}
+		return new Snapshot( variables);
+	}
+
+	private static final Environment EMPTY = new Snapshot( Collections.< String, String>emptyMap());
+
+	private static final Environment SYSTEM = new Environment() {
+
+		@ Override
+		public String get( final String name) {
+			return System.getenv( name);
+		}
+	};
+
+	/**
+	 * @return the environment of the current process, read through {@link System#getenv(String)}
+	 */
+	public static Environment system() {
+		return Environment.SYSTEM;
+	}
+
+	/**
+	 * @param variables
+	 * @return an immutable environment holding a copy of the variables
+	 */
+	public static Environment of( final Map< String, String> variables) {
+		return new Snapshot( new HashMap<>( variables));
+	}
+
+	private static final class Snapshot extends Environment {
+
+		private final Map< String, String> variables;
+
+		private Snapshot( final Map< String, String> variables) {
+			this.variables = Collections.unmodifiableMap( variables);
+		}
+
+		@ Override
+		public String get( final String name) {
+			return this.variables.get( name);
+		}
+
+		@ Override
+		public Environment snapshot( final Collection< String> names) {
+			return this; // nothing to capture, it never changes
+		}
+	}
+}
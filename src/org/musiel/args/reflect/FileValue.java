@@ -73,19 +73,26 @@ public @ interface FileValue {
 		public File decode( final String string) throws DecoderException {
 			final File file = new File( string);
 			if( this.mustExist && !file.exists())
-				throw new DecoderException( FileValue.class.getPackage().getName() + ".exceptions", "constraint", "does not exist", string);
+				throw new DecoderException( false, FileValue.class.getPackage().getName() + ".exceptions", "constraint", "does not exist",
+						string);
 			if( this.mustNotExist && file.exists())
-				throw new DecoderException( FileValue.class.getPackage().getName() + ".exceptions", "constraint", "already exists", string);
+				throw new DecoderException( false, FileValue.class.getPackage().getName() + ".exceptions", "constraint", "already exists",
+						string);
 			if( this.mustBeFile && !file.isFile())
-				throw new DecoderException( FileValue.class.getPackage().getName() + ".exceptions", "constraint", "not a file", string);
+				throw new DecoderException( false, FileValue.class.getPackage().getName() + ".exceptions", "constraint", "not a file",
+						string);
 			if( this.mustBeDirectory && !file.isDirectory())
-				throw new DecoderException( FileValue.class.getPackage().getName() + ".exceptions", "constraint", "not a directory", string);
+				throw new DecoderException( false, FileValue.class.getPackage().getName() + ".exceptions", "constraint", "not a directory",
+						string);
 			if( this.mustBeReadable && !file.canRead())
-				throw new DecoderException( FileValue.class.getPackage().getName() + ".exceptions", "constraint", "not readable", string);
+				throw new DecoderException( false, FileValue.class.getPackage().getName() + ".exceptions", "constraint", "not readable",
+						string);
 			if( this.mustBeWritable && !file.canWrite())
-				throw new DecoderException( FileValue.class.getPackage().getName() + ".exceptions", "constraint", "not writable", string);
+				throw new DecoderException( false, FileValue.class.getPackage().getName() + ".exceptions", "constraint", "not writable",
+						string);
 			if( this.mustBeExecutable && !file.canExecute())
-				throw new DecoderException( FileValue.class.getPackage().getName() + ".exceptions", "constraint", "not executable", string);
+				throw new DecoderException( false, FileValue.class.getPackage().getName() + ".exceptions", "constraint", "not executable",
+						string);
 			return file;
 		}
 	}
@@ -18,11 +18,14 @@ abstract class FloatNumberDecoder< T> implements Decoder< T> {
 
 	@ Override
 	public T decode( final String string) throws DecoderException {
+		return this.cast( this.decodeDecimal( string));
+	}
+
+	protected BigDecimal decodeDecimal( final String string) throws DecoderException {
 		try {
-			final BigDecimal decoded = new BigDecimal( string);
-			return this.cast( decoded);
+			return new BigDecimal( string);
 		} catch( final NumberFormatException formatException) {
-			throw new DecoderException( FloatNumberDecoder.class.getPackage().getName() + ".exceptions", "invalid-value",
+			throw new DecoderException( false, FloatNumberDecoder.class.getPackage().getName() + ".exceptions", "invalid-value",
 					"a floating point number", string);
 		}
 	}
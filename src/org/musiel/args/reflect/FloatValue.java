@@ -25,7 +25,7 @@ import java.math.BigDecimal;
 @ DecoderAnnotation( FloatValue.Decoder.class)
 public @ interface FloatValue {
 
-	static class Decoder extends FloatNumberDecoder< Float> {
+	static class Decoder extends FloatNumberDecoder< Float> implements PrimitiveDecoder.OfFloat {
 
 		public Decoder( final FloatValue annotation) {
 			this();
@@ -39,5 +39,10 @@ public @ interface FloatValue {
 		protected Float cast( final BigDecimal decoded) {
 			return Float.valueOf( decoded.floatValue());
 		}
+
+		@ Override
+		public float decodeFloat( final String string) throws DecoderException {
+			return this.decodeDecimal( string).floatValue();
+		}
 	}
 }
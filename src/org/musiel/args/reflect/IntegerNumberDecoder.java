@@ -16,11 +16,19 @@ import java.math.BigInteger;
 
 abstract class IntegerNumberDecoder< T> implements Decoder< T> {
 
+	private static final BigInteger LONG_MIN = BigInteger.valueOf( Long.MIN_VALUE);
+	private static final BigInteger LONG_MAX = BigInteger.valueOf( Long.MAX_VALUE);
+
 	private final int radix;
 	private final BigInteger min;
 	private final BigInteger max;
 	private final String rangeInString;
 
+	// the bounds as primitives, only usable if both of them are in the range of long
+	private final boolean primitiveBounds;
+	private final long primitiveMin;
+	private final long primitiveMax;
+
 	protected IntegerNumberDecoder( final int radix, final String min, final String max) {
 		super();
 		if( radix < 2 || radix > 36)
@@ -29,21 +37,57 @@ abstract class IntegerNumberDecoder< T> implements Decoder< T> {
 		this.min = min == null || min.equals( "")? null: new BigInteger( min);
 		this.max = max == null || max.equals( "")? null: new BigInteger( max);
 		this.rangeInString = ( this.min != null? "[" + this.min: "(-∞") + ", " + ( this.max != null? this.max + "]": "+∞)");
+		this.primitiveBounds = IntegerNumberDecoder.isLong( this.min) && IntegerNumberDecoder.isLong( this.max);
+		this.primitiveMin = this.min == null || !this.primitiveBounds? Long.MIN_VALUE: this.min.longValue();
+		this.primitiveMax = this.max == null || !this.primitiveBounds? Long.MAX_VALUE: this.max.longValue();
+	}
+
+	private static boolean isLong( final BigInteger bound) {
+		return bound == null
+				|| bound.compareTo( IntegerNumberDecoder.LONG_MIN) >= 0 && bound.compareTo( IntegerNumberDecoder.LONG_MAX) <= 0;
+	}
+
+	protected BigInteger decodeInteger( final String string) throws DecoderException {
+		final BigInteger decoded;
+		try {
+			decoded = new BigInteger( string, this.radix);
+		} catch( final NumberFormatException formatException) {
+			throw this.invalidValue( string);
+		}
+		if( this.min != null && decoded.compareTo( this.min) < 0 || this.max != null && decoded.compareTo( this.max) > 0)
+			throw this.outOfRange( string);
+		return decoded;
 	}
 
-	@ Override
-	public T decode( final String string) throws DecoderException {
+	/**
+	 * Decodes the string without allocation if possible. Values beyond the range of long are decoded by {@link #decodeInteger(String)}
+	 * and truncated to their lowest 64 bits.
+	 * 
+	 * @param string
+	 * @return
+	 * @throws DecoderException
+	 */
+	protected long decodePrimitive( final String string) throws DecoderException {
+		if( !this.primitiveBounds)
+			return this.decodeInteger( string).longValue();
+		final long decoded;
 		try {
-			final BigInteger decoded = new BigInteger( string, this.radix);
-			if( this.min != null && decoded.compareTo( this.min) < 0 || this.max != null && decoded.compareTo( this.max) > 0)
-				throw new DecoderException( IntegerNumberDecoder.class.getPackage().getName() + ".exceptions", "constraint",
-						"value out of range " + this.rangeInString, string);
-			return this.cast( decoded);
+			decoded = Long.parseLong( string, this.radix); // accepts exactly what BigInteger accepts, as long as the value fits
 		} catch( final NumberFormatException formatException) {
-			throw new DecoderException( IntegerNumberDecoder.class.getPackage().getName() + ".exceptions", "invalid-value",
-					"an integer number", string);
+			return this.decodeInteger( string).longValue(); // either not an integer, or beyond the range of long
 		}
+		if( decoded < this.primitiveMin || decoded > this.primitiveMax)
+			throw this.outOfRange( string);
+		return decoded;
 	}
 
-	protected abstract T cast( BigInteger decoded);
+	private DecoderException invalidValue( final String string) {
+		return new DecoderException( false, IntegerNumberDecoder.class.getPackage().getName() + ".exceptions", "invalid-value",
+				"an integer number", string);
+	}
+
+	private DecoderException outOfRange( final String string) {
+		return new DecoderException( false, IntegerNumberDecoder.class.getPackage().getName() + ".exceptions", "constraint",
+				"value out of range " + this.rangeInString, string);
+	}
 }
@@ -17,7 +17,6 @@ import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.math.BigInteger;
 
 @ Retention( RetentionPolicy.RUNTIME)
 @ Target( ElementType.METHOD)
@@ -31,7 +30,7 @@ public @ interface IntegerValue {
 
 	public String max() default "" + Integer.MAX_VALUE;
 
-	static class Decoder extends IntegerNumberDecoder< Integer> {
+	static class Decoder extends IntegerNumberDecoder< Integer> implements PrimitiveDecoder.OfInt {
 
 		public Decoder( final int radix, final String min, final String max) {
 			super( radix, min, max);
@@ -46,8 +45,13 @@ public @ interface IntegerValue {
 		}
 
 		@ Override
-		protected Integer cast( final BigInteger decoded) {
-			return Integer.valueOf( decoded.intValue());
+		public Integer decode( final String string) throws DecoderException {
+			return Integer.valueOf( this.decodeInt( string));
+		}
+
+		@ Override
+		public int decodeInt( final String string) throws DecoderException {
+			return ( int) this.decodePrimitive( string);
 		}
 	}
 }
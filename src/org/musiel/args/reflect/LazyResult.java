@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.musiel.args.AbstractResult;
+import org.musiel.args.ArgumentException;
+import org.musiel.args.ParseMetrics;
+import org.musiel.args.SimpleAccessor;
+
+/**
+ * A result of {@link ReflectParser} decoding the value of a model method only when it is called for the first time. Decoding errors are
+ * only known after all methods are decoded, which is forced by {@link #getErrors()} and the {@code check} methods, and they are reported
+ * to the metrics of the parse then.
+ * 
+ * @author Bagana
+ */
+class LazyResult< MODEL> extends AbstractResult< MODEL> {
+
+	private static final class Decoded {
+
+		private final Object value;
+		private final List< DecoderException> errors;
+
+		private Decoded( final Object value, final List< DecoderException> errors) {
+			this.value = value;
+			this.errors = errors;
+		}
+	}
+
+	private static final class Values implements ModelImplementation.ValueSource {
+
+		private final SimpleAccessor simpleAccessor;
+		private final Environment environment;
+		private final boolean stackTraceEnabled;
+		private final MethodHandler[] methodHandlers;
+		// threads may race decoding the same slot, but only the first result is kept, so they all see the same value
+		private final AtomicReferenceArray< Decoded> decoded;
+
+		private Values( final SimpleAccessor simpleAccessor, final Environment environment, final boolean stackTraceEnabled,
+				final MethodHandler[] methodHandlers) {
+			this.simpleAccessor = simpleAccessor;
+			this.environment = environment;
+			this.stackTraceEnabled = stackTraceEnabled;
+			this.methodHandlers = methodHandlers;
+			this.decoded = new AtomicReferenceArray<>( methodHandlers.length);
+		}
+
+		private Decoded decode( final int slot) {
+			final Decoded decoded = this.decoded.get( slot);
+			if( decoded != null)
+				return decoded;
+
+			final List< DecoderException> errors = new LinkedList<>();
+			final ExceptionHandler< DecoderException> exceptionHandler = new ExceptionHandler< DecoderException>() {
+
+				@ Override
+				public void handle( final DecoderException exception) {
+					errors.add( exception);
+				}
+			};
+			final Object value =
+					this.methodHandlers[ slot].decode( this.simpleAccessor, this.environment, this.stackTraceEnabled, exceptionHandler);
+			this.decoded.compareAndSet( slot, null, new Decoded( value, errors));
+			return this.decoded.get( slot);
+		}
+
+		@ Override
+		public Object get( final int slot) {
+			return this.decode( slot).value;
+		}
+	}
+
+	private final Values values;
+	private final ParseMetrics metrics;
+	private volatile Collection< ArgumentException> errors = null;
+
+	private LazyResult( final Collection< ? extends ArgumentException> parseTimeExceptions, final Values values,
+			final ParseMetrics metrics, final MODEL accessor) {
+		super( parseTimeExceptions, accessor);
+		this.values = values;
+		this.metrics = metrics;
+	}
+
+	public static < MODEL>LazyResult< MODEL> create( final Collection< ? extends ArgumentException> parseTimeExceptions,
+			final SimpleAccessor simpleAccessor, final Environment environment, final boolean stackTraceEnabled, final ParseMetrics metrics,
+			final MethodHandler[] methodHandlers, final ModelImplementation< MODEL> implementation) {
+		final Values values = new Values( simpleAccessor, environment, stackTraceEnabled, methodHandlers);
+		return new LazyResult<>( parseTimeExceptions, values, metrics, implementation.newLazyInstance( simpleAccessor, values));
+	}
+
+	/**
+	 * @return the errors found before decoding, without forcing it
+	 */
+	public Collection< ? extends ArgumentException> getParseTimeErrors() {
+		return super.getErrors();
+	}
+
+	@ Override
+	public Collection< ? extends ArgumentException> getErrors() {
+		Collection< ArgumentException> errors = this.errors;
+		if( errors == null) {
+			final Collection< ArgumentException> all = new LinkedHashSet<>( super.getErrors());
+			final int parseTimeCount = all.size();
+			for( int slot = 0; slot < this.values.methodHandlers.length; ++slot)
+				all.addAll( this.values.decode( slot).errors);
+			// threads may race here too, only the first one reports the decoding errors
+			synchronized( this) {
+				if( this.errors != null)
+					return this.errors;
+				this.errors = errors = Collections.unmodifiableCollection( all);
+			}
+			int index = 0;
+			for( final ArgumentException error: errors)
+				if( index++ >= parseTimeCount)
+					this.metrics.onError( error.getClass());
+		}
+		return errors;
+	}
+}
@@ -17,7 +17,6 @@ import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.math.BigInteger;
 
 @ Retention( RetentionPolicy.RUNTIME)
 @ Target( ElementType.METHOD)
@@ -31,7 +30,7 @@ public @ interface LongValue {
 
 	public String max() default "" + Long.MAX_VALUE;
 
-	static class Decoder extends IntegerNumberDecoder< Long> {
+	static class Decoder extends IntegerNumberDecoder< Long> implements PrimitiveDecoder.OfLong {
 
 		public Decoder( final int radix, final String min, final String max) {
 			super( radix, min, max);
@@ -46,8 +45,13 @@ public @ interface LongValue {
 		}
 
 		@ Override
-		protected Long cast( final BigInteger decoded) {
-			return Long.valueOf( decoded.longValue());
+		public Long decode( final String string) throws DecoderException {
+			return Long.valueOf( this.decodeLong( string));
+		}
+
+		@ Override
+		public long decodeLong( final String string) throws DecoderException {
+			return this.decodePrimitive( string);
 		}
 	}
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+/**
+ * An open-addressed hash table from strings to values, filled by a decoder when it is constructed and only read afterwards. Looking up a
+ * key allocates nothing, even if the table is case insensitive.
+ * 
+ * @author Bagana
+ * 
+ * @param <V>
+ */
+final class LookupTable< V> {
+
+	private final boolean caseSensitive;
+	private final String[] keys;
+	private final Object[] values;
+	private final int mask;
+	private int size = 0;
+
+	public LookupTable( final boolean caseSensitive, final int expectedSize) {
+		super();
+		this.caseSensitive = caseSensitive;
+		int capacity = 4;
+		while( capacity < expectedSize * 2) // load factor no more than 0.5
+			capacity <<= 1;
+		this.keys = new String[ capacity];
+		this.values = new Object[ capacity];
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * @param key
+	 * @param value
+	 * @return the value previously associated with an equivalent key, or <code>null</code> if there was none
+	 */
+	public V put( final String key, final V value) {
+		final int index = this.indexOf( key);
+		@ SuppressWarnings( "unchecked")
+		final V previous = ( V) this.values[ index];
+		if( this.keys[ index] == null) {
+			if( ++this.size * 2 > this.keys.length)
+				throw new IllegalStateException( "more keys than expected");
+			this.keys[ index] = key;
+		}
+		this.values[ index] = value;
+		return previous;
+	}
+
+	/**
+	 * @param key
+	 * @return the value associated with the key, or <code>null</code> if it is not in the table
+	 */
+	@ SuppressWarnings( "unchecked")
+	public V get( final String key) {
+		return ( V) this.values[ this.indexOf( key)];
+	}
+
+	private int indexOf( final String key) {
+		int index = this.hash( key) & this.mask;
+		while( this.keys[ index] != null && !this.matches( this.keys[ index], key))
+			index = index + 1 & this.mask;
+		return index;
+	}
+
+	private boolean matches( final String existing, final String key) {
+		return this.caseSensitive? existing.equals( key): existing.equalsIgnoreCase( key);
+	}
+
+	private int hash( final String key) {
+		int hash;
+		if( this.caseSensitive)
+			hash = key.hashCode();
+		else {
+			hash = 0;
+			for( int index = 0; index < key.length(); ++index) // folds case the same way as String.equalsIgnoreCase
+				hash = 31 * hash + Character.toLowerCase( Character.toUpperCase( key.charAt( index)));
+		}
+		return hash ^ hash >>> 16;
+	}
+}
@@ -32,7 +32,7 @@ import org.musiel.args.SimpleAccessor;
 abstract class MethodHandler {
 
 	protected final ValueConstructor valueConstructor;
-	protected final String defaultValue;
+	protected final DecodedDefault defaultValue;
 	protected final String environmentVariableName;
 
 	public MethodHandler( final Method method) {
@@ -41,15 +41,11 @@ abstract class MethodHandler {
 				declaredDecoder == null? MethodHandler.getDefaultConstructor( method): MethodHandler.checkAndReturnConstructor( method,
 						declaredDecoder);
 
-		this.defaultValue = method.isAnnotationPresent( Default.class)? method.getAnnotation( Default.class).value(): null;
-		if( this.defaultValue != null && !"".equals( this.defaultValue))
-			this.valueConstructor.decode( new ExceptionHandler< DecoderException>() {
-
-				@ Override
-				public void handle( final DecoderException exception) {
-					throw new IllegalArgumentException( MethodHandler.this.defaultValue + " is invalid");
-				}
-			}, this.defaultValue, null);
+		final String defaultValue = method.isAnnotationPresent( Default.class)? method.getAnnotation( Default.class).value(): null;
+		this.defaultValue = defaultValue == null? null: this.valueConstructor.decodeDefault( defaultValue);
+		// an empty default value is not checked, neither are default values of arrays, which are only used for missing elements
+		if( this.defaultValue != null && !this.defaultValue.isValid() && !"".equals( defaultValue) && !this.valueConstructor.expectsMany())
+			throw new IllegalArgumentException( defaultValue + " is invalid");
 		this.environmentVariableName =
 				method.isAnnotationPresent( EnvironmentVariable.class)? method.getAnnotation( EnvironmentVariable.class).value(): null;
 	}
@@ -138,14 +134,14 @@ abstract class MethodHandler {
 		MethodHandler.DEFAULTS.put( URL.class, new ObjectConstructor( new UrlValue.Decoder(), null));
 
 		// void[] is not possible
-		MethodHandler.DEFAULTS.put( boolean[].class, new ArrayConstructor( new BooleanValue.Decoder(), boolean.class, false));
-		MethodHandler.DEFAULTS.put( byte[].class, new ArrayConstructor( new ByteValue.Decoder(), byte.class, ( byte) 0));
-		MethodHandler.DEFAULTS.put( short[].class, new ArrayConstructor( new ShortValue.Decoder(), short.class, ( short) 0));
-		MethodHandler.DEFAULTS.put( int[].class, new ArrayConstructor( new IntegerValue.Decoder(), int.class, 0));
-		MethodHandler.DEFAULTS.put( long[].class, new ArrayConstructor( new LongValue.Decoder(), long.class, 0L));
-		MethodHandler.DEFAULTS.put( float[].class, new ArrayConstructor( new FloatValue.Decoder(), float.class, 0.0F));
-		MethodHandler.DEFAULTS.put( double[].class, new ArrayConstructor( new DoubleValue.Decoder(), double.class, 0.0D));
-		MethodHandler.DEFAULTS.put( char[].class, new ArrayConstructor( new CharacterValue.Decoder(), char.class, ( char) 0));
+		MethodHandler.DEFAULTS.put( boolean[].class, PrimitiveArrayConstructor.of( boolean.class, new BooleanValue.Decoder()));
+		MethodHandler.DEFAULTS.put( byte[].class, PrimitiveArrayConstructor.of( byte.class, new ByteValue.Decoder()));
+		MethodHandler.DEFAULTS.put( short[].class, PrimitiveArrayConstructor.of( short.class, new ShortValue.Decoder()));
+		MethodHandler.DEFAULTS.put( int[].class, PrimitiveArrayConstructor.of( int.class, new IntegerValue.Decoder()));
+		MethodHandler.DEFAULTS.put( long[].class, PrimitiveArrayConstructor.of( long.class, new LongValue.Decoder()));
+		MethodHandler.DEFAULTS.put( float[].class, PrimitiveArrayConstructor.of( float.class, new FloatValue.Decoder()));
+		MethodHandler.DEFAULTS.put( double[].class, PrimitiveArrayConstructor.of( double.class, new DoubleValue.Decoder()));
+		MethodHandler.DEFAULTS.put( char[].class, PrimitiveArrayConstructor.of( char.class, new CharacterValue.Decoder()));
 
 		MethodHandler.DEFAULTS.put( Void[].class, new ArrayConstructor( null, Void.class, null));
 		MethodHandler.DEFAULTS.put( Boolean[].class, new ArrayConstructor( new BooleanValue.Decoder(), Boolean.class, null));
@@ -195,46 +191,65 @@ abstract class MethodHandler {
 		if( !PrimitiveType.forPrimitiveType( componentType).getWrapperType().isAssignableFrom( decoderReturnType))
 			throw new IllegalArgumentException( "decoder of type " + decoderReturnType + " cannot be applied to method with return type "
 					+ methodReturnType);
-		return new ArrayConstructor( declaredDecoder, componentType, PrimitiveType.forPrimitiveType( componentType).getDefaultValue());
+		return PrimitiveArrayConstructor.of( componentType, declaredDecoder);
+	}
+
+	public String getEnvironmentVariableName() {
+		return this.environmentVariableName;
 	}
 
-	public abstract Object decode( final SimpleAccessor simpleAccessor, ExceptionHandler< DecoderException> exceptionHandler);
+	/**
+	 * @param simpleAccessor
+	 * @param environment
+	 * @param stackTraceEnabled
+	 *            whether the exceptions passed to the handler have stack traces
+	 * @param exceptionHandler
+	 * @return
+	 */
+	public abstract Object decode( final SimpleAccessor simpleAccessor, Environment environment, boolean stackTraceEnabled,
+			ExceptionHandler< DecoderException> exceptionHandler);
 }
 
 class OptionHandler extends MethodHandler {
 
 	private final String optionName;
-
-	public OptionHandler( final Method method, final ReflectParser< ?> parser) {
+	private final String[] additionalNames;
+	private final boolean required;
+	private final boolean repeatable;
+	private final ArgumentPolicy argument;
+	private final String description;
+	private final String argumentName;
+
+	public OptionHandler( final Method method) {
 		super( method);
 
 		// names
-		String[] additionalNames;
 		final Option option = method.getAnnotation( Option.class);
 		if( option != null && option.value().length > 0) {
 			this.optionName = option.value()[ 0];
-			additionalNames = option.value(); // duplicates are okay
+			this.additionalNames = option.value(); // duplicates are okay
 		} else {
 			this.optionName = OptionHandler.constructName( method.getName());
-			additionalNames = new String[]{};
+			this.additionalNames = new String[]{};
 		}
 
 		// properties
-		final boolean required = method.isAnnotationPresent( Required.class)? method.getAnnotation( Required.class).value(): false;
-		final boolean repeatable =
+		this.required = method.isAnnotationPresent( Required.class)? method.getAnnotation( Required.class).value(): false;
+		this.repeatable =
 				method.isAnnotationPresent( Repeatable.class)? method.getAnnotation( Repeatable.class).value(): this.valueConstructor
 						.expectsMany();
-		final ArgumentPolicy argument =
+		this.argument =
 				method.isAnnotationPresent( Argument.class)? method.getAnnotation( Argument.class).value(): this.valueConstructor
 						.dependsOnContent()? ArgumentPolicy.REQUIRED: ArgumentPolicy.NONE;
 
 		// i18n
-		final String description = method.isAnnotationPresent( Description.class)? method.getAnnotation( Description.class).value(): null;
-		final String argumentName =
-				method.isAnnotationPresent( ArgumentName.class)? method.getAnnotation( ArgumentName.class).value(): null;
+		this.description = method.isAnnotationPresent( Description.class)? method.getAnnotation( Description.class).value(): null;
+		this.argumentName = method.isAnnotationPresent( ArgumentName.class)? method.getAnnotation( ArgumentName.class).value(): null;
+	}
 
-		// register
-		parser.addOption( this.optionName, additionalNames, required, repeatable, argument, description, argumentName);
+	public void register( final ReflectParser< ?> parser) {
+		parser.addOption( this.optionName, this.additionalNames, this.required, this.repeatable, this.argument, this.description,
+				this.argumentName);
 	}
 
 	private final static Pattern SHORT_NAME_APPLICABLE = Pattern.compile( "^[a-zA-Z0-9]$");
@@ -257,15 +272,16 @@ class OptionHandler extends MethodHandler {
 	}
 
 	@ Override
-	public Object decode( final SimpleAccessor simpleAccessor, final ExceptionHandler< DecoderException> exceptionHandler) {
+	public Object decode( final SimpleAccessor simpleAccessor, final Environment environment, final boolean stackTraceEnabled,
+			final ExceptionHandler< DecoderException> exceptionHandler) {
 		return this.valueConstructor.decode( new ExceptionHandler< DecoderException>() {
 
 			@ Override
 			public void handle( final DecoderException exception) {
-				exceptionHandler.handle( new DecoderException( exception, MethodHandler.class.getPackage().getName() + ".exceptions",
-						"illegal-value.option", OptionHandler.this.optionName));
+				exceptionHandler.handle( new DecoderException( stackTraceEnabled, exception, MethodHandler.class.getPackage().getName()
+						+ ".exceptions", "illegal-value.option", OptionHandler.this.optionName));
 			}
-		}, this.defaultValue, this.environmentVariableName, simpleAccessor.getArgumentsAsArray( this.optionName));
+		}, this.defaultValue, environment, this.environmentVariableName, simpleAccessor.getArgumentsAsArray( this.optionName));
 	}
 }
 
@@ -302,17 +318,18 @@ class OperandHandler extends MethodHandler {
 	}
 
 	@ Override
-	public Object decode( final SimpleAccessor simpleAccessor, final ExceptionHandler< DecoderException> exceptionHandler) {
+	public Object decode( final SimpleAccessor simpleAccessor, final Environment environment, final boolean stackTraceEnabled,
+			final ExceptionHandler< DecoderException> exceptionHandler) {
 		return this.valueConstructor.decode( new ExceptionHandler< DecoderException>() {
 
 			@ Override
 			public void handle( final DecoderException exception) {
-				exceptionHandler.handle( OperandHandler.this.operandName == null? new DecoderException( exception, MethodHandler.class
-						.getPackage().getName() + ".exceptions", "illegal-value.operand.unnamed"): new DecoderException( exception,
-						MethodHandler.class.getPackage().getName() + ".exceptions", "illegal-value.operand.named",
-						OperandHandler.this.operandName));
+				exceptionHandler.handle( OperandHandler.this.operandName == null? new DecoderException( stackTraceEnabled, exception,
+						MethodHandler.class.getPackage().getName() + ".exceptions", "illegal-value.operand.unnamed"): new DecoderException(
+						stackTraceEnabled, exception, MethodHandler.class.getPackage().getName() + ".exceptions",
+						"illegal-value.operand.named", OperandHandler.this.operandName));
 			}
-		}, this.defaultValue, this.environmentVariableName,
+		}, this.defaultValue, environment, this.environmentVariableName,
 				this.operandName == null? simpleAccessor.getOperandsAsArray(): simpleAccessor.getOperandsAsArray( this.operandName));
 	}
 }
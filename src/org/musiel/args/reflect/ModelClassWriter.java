@@ -0,0 +1,493 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.musiel.args.SimpleAccessor;
+
+/**
+ * Writes the class file of a final class implementing a model interface.
+ * 
+ * <p>
+ * The class has a public constructor taking a {@link SimpleAccessor} and an {@code Object[]} of decoded values, one per value method.
+ * Each value is unboxed or cast once, and stored in a final field of the method's return type, so the value methods are plain field
+ * reads. Methods declared by {@link SimpleAccessor} are delegated to the accessor.
+ * </p>
+ * 
+ * <p>
+ * The lazy variant takes a {@link List} instead of the array, and its value methods get their value from the list every time they are
+ * called, unboxing or casting it, so the list is expected to decode and memoize the values.
+ * </p>
+ * 
+ * <p>
+ * There are no branches in the generated code, so the class file version is kept at 50, where stack map frames are not needed.
+ * </p>
+ * 
+ * @author Bagana
+ */
+class ModelClassWriter {
+
+	private static final int VERSION = 50;
+
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_PRIVATE = 0x0002;
+	private static final int ACC_FINAL = 0x0010;
+	private static final int ACC_SUPER = 0x0020;
+
+	private static final int ALOAD_0 = 0x2a;
+	private static final int ALOAD_1 = 0x2b;
+	private static final int ALOAD_2 = 0x2c;
+	private static final int ICONST_0 = 0x03;
+	private static final int BIPUSH = 0x10;
+	private static final int SIPUSH = 0x11;
+	private static final int AALOAD = 0x32;
+	private static final int ILOAD = 0x15;
+	private static final int LLOAD = 0x16;
+	private static final int FLOAD = 0x17;
+	private static final int DLOAD = 0x18;
+	private static final int ALOAD = 0x19;
+	private static final int IRETURN = 0xac;
+	private static final int LRETURN = 0xad;
+	private static final int FRETURN = 0xae;
+	private static final int DRETURN = 0xaf;
+	private static final int ARETURN = 0xb0;
+	private static final int RETURN = 0xb1;
+	private static final int GETFIELD = 0xb4;
+	private static final int PUTFIELD = 0xb5;
+	private static final int INVOKEVIRTUAL = 0xb6;
+	private static final int INVOKESPECIAL = 0xb7;
+	private static final int INVOKEINTERFACE = 0xb9;
+	private static final int CHECKCAST = 0xc0;
+
+	private static final String ACCESSOR_FIELD = "accessor";
+	private static final String VALUES_FIELD = "values";
+	private static final String CONSTRUCTOR_DESCRIPTOR = "(" + ModelClassWriter.getDescriptor( SimpleAccessor.class) + "[Ljava/lang/Object;)V";
+	private static final String LAZY_CONSTRUCTOR_DESCRIPTOR = "(" + ModelClassWriter.getDescriptor( SimpleAccessor.class)
+			+ ModelClassWriter.getDescriptor( List.class) + ")V";
+
+	private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+	private final DataOutputStream pool = new DataOutputStream( this.poolBytes);
+	private final Map< String, Integer> poolIndices = new HashMap<>();
+	private int poolSize = 1;
+
+	private final String className;
+	private final boolean lazy;
+
+	private ModelClassWriter( final String className, final boolean lazy) {
+		this.className = className.replace( '.', '/');
+		this.lazy = lazy;
+	}
+
+	/**
+	 * @param className
+	 * @param model
+	 * @param valueMethods
+	 *            methods returning decoded values, the index of each is the index of its value in the constructor argument
+	 * @param accessorMethods
+	 *            methods to delegate to the {@link SimpleAccessor}
+	 * @param lazy
+	 *            whether to write the lazy variant
+	 * @return
+	 */
+	public static byte[] write( final String className, final Class< ?> model, final Method[] valueMethods, final Method[] accessorMethods,
+			final boolean lazy) {
+		try {
+			return new ModelClassWriter( className, lazy).write( model, valueMethods, accessorMethods);
+		} catch( final IOException exception) {
+			throw new AssertionError( exception); // not possible with in-memory streams
+		}
+	}
+
+	private byte[] write( final Class< ?> model, final Method[] valueMethods, final Method[] accessorMethods) throws IOException {
+		final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+		final DataOutputStream body = new DataOutputStream( bodyBytes);
+
+		body.writeShort( ModelClassWriter.ACC_PUBLIC | ModelClassWriter.ACC_FINAL | ModelClassWriter.ACC_SUPER);
+		body.writeShort( this.classConstant( this.className));
+		body.writeShort( this.classConstant( "java/lang/Object"));
+		body.writeShort( 1);
+		body.writeShort( this.classConstant( ModelClassWriter.getInternalName( model)));
+
+		// fields
+		int fieldCount = 1;
+		if( this.lazy)
+			++fieldCount;
+		else
+			for( final Method method: valueMethods)
+				if( !void.class.equals( method.getReturnType()))
+					++fieldCount;
+		body.writeShort( fieldCount);
+		this.writeField( body, ModelClassWriter.ACCESSOR_FIELD, ModelClassWriter.getDescriptor( SimpleAccessor.class));
+		if( this.lazy)
+			this.writeField( body, ModelClassWriter.VALUES_FIELD, ModelClassWriter.getDescriptor( List.class));
+		else
+			for( int index = 0; index < valueMethods.length; ++index)
+				if( !void.class.equals( valueMethods[ index].getReturnType()))
+					this.writeField( body, ModelClassWriter.getFieldName( index),
+							ModelClassWriter.getDescriptor( valueMethods[ index].getReturnType()));
+
+		// methods
+		body.writeShort( 1 + valueMethods.length + accessorMethods.length);
+		if( this.lazy) {
+			this.writeLazyConstructor( body);
+			for( int index = 0; index < valueMethods.length; ++index)
+				this.writeLazyValueMethod( body, valueMethods[ index], index);
+		} else {
+			this.writeConstructor( body, valueMethods);
+			for( int index = 0; index < valueMethods.length; ++index)
+				this.writeValueMethod( body, valueMethods[ index], index);
+		}
+		for( final Method method: accessorMethods)
+			this.writeAccessorMethod( body, method);
+
+		// attributes
+		body.writeShort( 0);
+
+		final ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+		final DataOutputStream classFile = new DataOutputStream( classBytes);
+		classFile.writeInt( 0xcafebabe);
+		classFile.writeShort( 0);
+		classFile.writeShort( ModelClassWriter.VERSION);
+		classFile.writeShort( this.poolSize);
+		this.pool.flush();
+		this.poolBytes.writeTo( classFile);
+		body.flush();
+		bodyBytes.writeTo( classFile);
+		classFile.flush();
+		return classBytes.toByteArray();
+	}
+
+	private void writeField( final DataOutputStream out, final String name, final String descriptor) throws IOException {
+		out.writeShort( ModelClassWriter.ACC_PRIVATE | ModelClassWriter.ACC_FINAL);
+		out.writeShort( this.utf8Constant( name));
+		out.writeShort( this.utf8Constant( descriptor));
+		out.writeShort( 0);
+	}
+
+	private void writeConstructor( final DataOutputStream out, final Method[] valueMethods) throws IOException {
+		final ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+		final DataOutputStream code = new DataOutputStream( codeBytes);
+		final String accessorDescriptor = ModelClassWriter.getDescriptor( SimpleAccessor.class);
+
+		code.writeByte( ModelClassWriter.ALOAD_0);
+		code.writeByte( ModelClassWriter.INVOKESPECIAL);
+		code.writeShort( this.memberConstant( 10, "java/lang/Object", "<init>", "()V"));
+		code.writeByte( ModelClassWriter.ALOAD_0);
+		code.writeByte( ModelClassWriter.ALOAD_1);
+		code.writeByte( ModelClassWriter.PUTFIELD);
+		code.writeShort( this.memberConstant( 9, this.className, ModelClassWriter.ACCESSOR_FIELD, accessorDescriptor));
+
+		for( int index = 0; index < valueMethods.length; ++index) {
+			final Class< ?> type = valueMethods[ index].getReturnType();
+			if( void.class.equals( type))
+				continue;
+			code.writeByte( ModelClassWriter.ALOAD_0);
+			code.writeByte( ModelClassWriter.ALOAD_2);
+			ModelClassWriter.writeIndex( code, index);
+			code.writeByte( ModelClassWriter.AALOAD);
+			this.writeConversion( code, type);
+			code.writeByte( ModelClassWriter.PUTFIELD);
+			code.writeShort( this.memberConstant( 9, this.className, ModelClassWriter.getFieldName( index),
+					ModelClassWriter.getDescriptor( type)));
+		}
+		code.writeByte( ModelClassWriter.RETURN);
+
+		this.writeMethod( out, ModelClassWriter.ACC_PUBLIC, "<init>", ModelClassWriter.CONSTRUCTOR_DESCRIPTOR, 3, 3, codeBytes.toByteArray());
+	}
+
+	private void writeValueMethod( final DataOutputStream out, final Method method, final int index) throws IOException {
+		final ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+		final DataOutputStream code = new DataOutputStream( codeBytes);
+		final Class< ?> type = method.getReturnType();
+
+		if( !void.class.equals( type)) {
+			code.writeByte( ModelClassWriter.ALOAD_0);
+			code.writeByte( ModelClassWriter.GETFIELD);
+			code.writeShort( this.memberConstant( 9, this.className, ModelClassWriter.getFieldName( index), ModelClassWriter.getDescriptor( type)));
+		}
+		code.writeByte( ModelClassWriter.getReturnInstruction( type));
+
+		this.writeMethod( out, ModelClassWriter.ACC_PUBLIC | ModelClassWriter.ACC_FINAL, method.getName(),
+				ModelClassWriter.getDescriptor( method),
+				ModelClassWriter.getSize( type), 1 + ModelClassWriter.getParameterSize( method), codeBytes.toByteArray());
+	}
+
+	private void writeLazyConstructor( final DataOutputStream out) throws IOException {
+		final ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+		final DataOutputStream code = new DataOutputStream( codeBytes);
+
+		code.writeByte( ModelClassWriter.ALOAD_0);
+		code.writeByte( ModelClassWriter.INVOKESPECIAL);
+		code.writeShort( this.memberConstant( 10, "java/lang/Object", "<init>", "()V"));
+		code.writeByte( ModelClassWriter.ALOAD_0);
+		code.writeByte( ModelClassWriter.ALOAD_1);
+		code.writeByte( ModelClassWriter.PUTFIELD);
+		code.writeShort( this.memberConstant( 9, this.className, ModelClassWriter.ACCESSOR_FIELD,
+				ModelClassWriter.getDescriptor( SimpleAccessor.class)));
+		code.writeByte( ModelClassWriter.ALOAD_0);
+		code.writeByte( ModelClassWriter.ALOAD_2);
+		code.writeByte( ModelClassWriter.PUTFIELD);
+		code.writeShort( this.memberConstant( 9, this.className, ModelClassWriter.VALUES_FIELD,
+				ModelClassWriter.getDescriptor( List.class)));
+		code.writeByte( ModelClassWriter.RETURN);
+
+		this.writeMethod( out, ModelClassWriter.ACC_PUBLIC, "<init>", ModelClassWriter.LAZY_CONSTRUCTOR_DESCRIPTOR, 2, 3,
+				codeBytes.toByteArray());
+	}
+
+	private void writeLazyValueMethod( final DataOutputStream out, final Method method, final int index) throws IOException {
+		final ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+		final DataOutputStream code = new DataOutputStream( codeBytes);
+		final Class< ?> type = method.getReturnType();
+
+		if( !void.class.equals( type)) {
+			code.writeByte( ModelClassWriter.ALOAD_0);
+			code.writeByte( ModelClassWriter.GETFIELD);
+			code.writeShort( this.memberConstant( 9, this.className, ModelClassWriter.VALUES_FIELD,
+					ModelClassWriter.getDescriptor( List.class)));
+			ModelClassWriter.writeIndex( code, index);
+			code.writeByte( ModelClassWriter.INVOKEINTERFACE);
+			code.writeShort( this.memberConstant( 11, ModelClassWriter.getInternalName( List.class), "get", "(I)Ljava/lang/Object;"));
+			code.writeByte( 2);
+			code.writeByte( 0);
+			this.writeConversion( code, type);
+		}
+		code.writeByte( ModelClassWriter.getReturnInstruction( type));
+
+		this.writeMethod( out, ModelClassWriter.ACC_PUBLIC | ModelClassWriter.ACC_FINAL, method.getName(),
+				ModelClassWriter.getDescriptor( method),
+				2, 1 + ModelClassWriter.getParameterSize( method), codeBytes.toByteArray());
+	}
+
+	private static void writeIndex( final DataOutputStream code, final int index) throws IOException {
+		if( index <= 5)
+			code.writeByte( ModelClassWriter.ICONST_0 + index);
+		else if( index <= Byte.MAX_VALUE) {
+			code.writeByte( ModelClassWriter.BIPUSH);
+			code.writeByte( index);
+		} else {
+			code.writeByte( ModelClassWriter.SIPUSH);
+			code.writeShort( index); // class files cannot have more than 65535 methods
+		}
+	}
+
+	/**
+	 * Converts the object on the top of the stack to the type, by unboxing or casting it.
+	 * 
+	 * @param code
+	 * @param type
+	 * @throws IOException
+	 */
+	private void writeConversion( final DataOutputStream code, final Class< ?> type) throws IOException {
+		if( type.isPrimitive()) {
+			final String wrapper = ModelClassWriter.getInternalName( PrimitiveType.forPrimitiveType( type).getWrapperType());
+			code.writeByte( ModelClassWriter.CHECKCAST);
+			code.writeShort( this.classConstant( wrapper));
+			code.writeByte( ModelClassWriter.INVOKEVIRTUAL);
+			code.writeShort( this.memberConstant( 10, wrapper, type.getName() + "Value", "()" + ModelClassWriter.getDescriptor( type)));
+		} else if( !Object.class.equals( type)) {
+			code.writeByte( ModelClassWriter.CHECKCAST);
+			code.writeShort( this.classConstant( ModelClassWriter.getInternalName( type)));
+		}
+	}
+
+	private void writeAccessorMethod( final DataOutputStream out, final Method method) throws IOException {
+		final ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+		final DataOutputStream code = new DataOutputStream( codeBytes);
+		final int parameterSize = ModelClassWriter.getParameterSize( method);
+
+		code.writeByte( ModelClassWriter.ALOAD_0);
+		code.writeByte( ModelClassWriter.GETFIELD);
+		code.writeShort( this.memberConstant( 9, this.className, ModelClassWriter.ACCESSOR_FIELD,
+				ModelClassWriter.getDescriptor( SimpleAccessor.class)));
+		int local = 1;
+		for( final Class< ?> parameterType: method.getParameterTypes()) {
+			code.writeByte( ModelClassWriter.getLoadInstruction( parameterType));
+			code.writeByte( local);
+			local += ModelClassWriter.getSize( parameterType);
+		}
+		code.writeByte( ModelClassWriter.INVOKEINTERFACE);
+		code.writeShort( this.memberConstant( 11, ModelClassWriter.getInternalName( SimpleAccessor.class), method.getName(),
+				ModelClassWriter.getDescriptor( method)));
+		code.writeByte( 1 + parameterSize);
+		code.writeByte( 0);
+		code.writeByte( ModelClassWriter.getReturnInstruction( method.getReturnType()));
+
+		this.writeMethod( out, ModelClassWriter.ACC_PUBLIC | ModelClassWriter.ACC_FINAL, method.getName(),
+				ModelClassWriter.getDescriptor( method),
+				Math.max( 1 + parameterSize, ModelClassWriter.getSize( method.getReturnType())), 1 + parameterSize, codeBytes.toByteArray());
+	}
+
+	private void writeMethod( final DataOutputStream out, final int access, final String name, final String descriptor, final int maxStack,
+			final int maxLocals, final byte[] code) throws IOException {
+		out.writeShort( access);
+		out.writeShort( this.utf8Constant( name));
+		out.writeShort( this.utf8Constant( descriptor));
+		out.writeShort( 1);
+		out.writeShort( this.utf8Constant( "Code"));
+		out.writeInt( 12 + code.length);
+		out.writeShort( maxStack);
+		out.writeShort( maxLocals);
+		out.writeInt( code.length);
+		out.write( code);
+		out.writeShort( 0); // exception table
+		out.writeShort( 0); // attributes
+	}
+
+	// constant pool
+
+	private int utf8Constant( final String value) throws IOException {
+		final String key = "U" + value;
+		Integer index = this.poolIndices.get( key);
+		if( index == null) {
+			this.pool.writeByte( 1);
+			this.pool.writeUTF( value);
+			this.poolIndices.put( key, index = this.poolSize++);
+		}
+		return index;
+	}
+
+	private int classConstant( final String internalName) throws IOException {
+		final String key = "C" + internalName;
+		Integer index = this.poolIndices.get( key);
+		if( index == null) {
+			final int name = this.utf8Constant( internalName);
+			this.pool.writeByte( 7);
+			this.pool.writeShort( name);
+			this.poolIndices.put( key, index = this.poolSize++);
+		}
+		return index;
+	}
+
+	private int nameAndTypeConstant( final String name, final String descriptor) throws IOException {
+		final String key = "N" + name + ' ' + descriptor;
+		Integer index = this.poolIndices.get( key);
+		if( index == null) {
+			final int nameIndex = this.utf8Constant( name);
+			final int descriptorIndex = this.utf8Constant( descriptor);
+			this.pool.writeByte( 12);
+			this.pool.writeShort( nameIndex);
+			this.pool.writeShort( descriptorIndex);
+			this.poolIndices.put( key, index = this.poolSize++);
+		}
+		return index;
+	}
+
+	/**
+	 * @param tag
+	 *            9 for fields, 10 for class methods, 11 for interface methods
+	 * @param owner
+	 * @param name
+	 * @param descriptor
+	 * @return
+	 * @throws IOException
+	 */
+	private int memberConstant( final int tag, final String owner, final String name, final String descriptor) throws IOException {
+		final String key = "M" + tag + owner + '.' + name + ' ' + descriptor;
+		Integer index = this.poolIndices.get( key);
+		if( index == null) {
+			final int ownerIndex = this.classConstant( owner);
+			final int nameAndTypeIndex = this.nameAndTypeConstant( name, descriptor);
+			this.pool.writeByte( tag);
+			this.pool.writeShort( ownerIndex);
+			this.pool.writeShort( nameAndTypeIndex);
+			this.poolIndices.put( key, index = this.poolSize++);
+		}
+		return index;
+	}
+
+	// types
+
+	private static String getFieldName( final int index) {
+		return "value" + index;
+	}
+
+	private static String getInternalName( final Class< ?> type) {
+		return type.isArray()? ModelClassWriter.getDescriptor( type): type.getName().replace( '.', '/');
+	}
+
+	public static String getDescriptor( final Method method) {
+		final StringBuilder builder = new StringBuilder().append( '(');
+		for( final Class< ?> parameterType: method.getParameterTypes())
+			builder.append( ModelClassWriter.getDescriptor( parameterType));
+		return builder.append( ')').append( ModelClassWriter.getDescriptor( method.getReturnType())).toString();
+	}
+
+	private static String getDescriptor( final Class< ?> type) {
+		if( type.isArray())
+			return "[" + ModelClassWriter.getDescriptor( type.getComponentType());
+		if( !type.isPrimitive())
+			return "L" + type.getName().replace( '.', '/') + ";";
+		if( boolean.class.equals( type))
+			return "Z";
+		if( byte.class.equals( type))
+			return "B";
+		if( char.class.equals( type))
+			return "C";
+		if( short.class.equals( type))
+			return "S";
+		if( int.class.equals( type))
+			return "I";
+		if( long.class.equals( type))
+			return "J";
+		if( float.class.equals( type))
+			return "F";
+		if( double.class.equals( type))
+			return "D";
+		return "V";
+	}
+
+	private static int getSize( final Class< ?> type) {
+		return void.class.equals( type)? 0: long.class.equals( type) || double.class.equals( type)? 2: 1;
+	}
+
+	private static int getParameterSize( final Method method) {
+		int size = 0;
+		for( final Class< ?> parameterType: method.getParameterTypes())
+			size += ModelClassWriter.getSize( parameterType);
+		return size;
+	}
+
+	private static int getLoadInstruction( final Class< ?> type) {
+		if( !type.isPrimitive())
+			return ModelClassWriter.ALOAD;
+		if( long.class.equals( type))
+			return ModelClassWriter.LLOAD;
+		if( float.class.equals( type))
+			return ModelClassWriter.FLOAD;
+		if( double.class.equals( type))
+			return ModelClassWriter.DLOAD;
+		return ModelClassWriter.ILOAD;
+	}
+
+	private static int getReturnInstruction( final Class< ?> type) {
+		if( void.class.equals( type))
+			return ModelClassWriter.RETURN;
+		if( !type.isPrimitive())
+			return ModelClassWriter.ARETURN;
+		if( long.class.equals( type))
+			return ModelClassWriter.LRETURN;
+		if( float.class.equals( type))
+			return ModelClassWriter.FRETURN;
+		if( double.class.equals( type))
+			return ModelClassWriter.DRETURN;
+		return ModelClassWriter.IRETURN;
+	}
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.musiel.args.SimpleAccessor;
+
+/**
+ * Creates instances of a model interface from decoded values.
+ * 
+ * <p>
+ * Where possible, a final class implementing the model is generated by {@link ModelClassWriter}, so that reading a value is a field read.
+ * The class is defined in the package of the model if the runtime allows it (Java 9 and later), which also works for non-public models,
+ * otherwise in a class loader of its own, which only works if all involved types are public. If neither is possible, a {@link Proxy} is
+ * used. The same applies to the lazy variant, which is only generated when the first lazy instance is created.
+ * </p>
+ * 
+ * @author Bagana
+ */
+class ModelImplementation< MODEL> {
+
+	private static final Map< Class< ?>, WeakReference< Class< ?>>> GENERATED = Collections
+			.synchronizedMap( new WeakHashMap< Class< ?>, WeakReference< Class< ?>>>());
+	private static final Map< Class< ?>, WeakReference< Class< ?>>> GENERATED_LAZY = Collections
+			.synchronizedMap( new WeakHashMap< Class< ?>, WeakReference< Class< ?>>>());
+
+	private final Class< MODEL> model;
+	private final Method[] valueMethods;
+	private final Method[] accessorMethods;
+	private final Map< Method, Integer> slots = new HashMap<>();
+	private final Object[] primitiveDefaults;
+	private final Constructor< ? extends MODEL> constructor;
+	// written before lazyGenerated
+	private Constructor< ? extends MODEL> lazyConstructor = null;
+	private volatile boolean lazyGenerated = false;
+
+	public ModelImplementation( final Class< MODEL> model) {
+		this.model = model;
+
+		final List< Method> valueMethods = new ArrayList<>();
+		final List< Method> accessorMethods = new ArrayList<>();
+		for( final Method method: model.getMethods())
+			( SimpleAccessor.class.equals( method.getDeclaringClass())? accessorMethods: valueMethods).add( method);
+		this.valueMethods = valueMethods.toArray( new Method[ valueMethods.size()]);
+		this.accessorMethods = accessorMethods.toArray( new Method[ accessorMethods.size()]);
+		// a stable order, so that a generated class can be shared by all parsers of the model
+		Arrays.sort( this.valueMethods, new Comparator< Method>() {
+
+			@ Override
+			public int compare( final Method method1, final Method method2) {
+				final int result = method1.getName().compareTo( method2.getName());
+				return result != 0? result: ModelClassWriter.getDescriptor( method1).compareTo( ModelClassWriter.getDescriptor( method2));
+			}
+		});
+
+		this.primitiveDefaults = new Object[ this.valueMethods.length];
+		for( int index = 0; index < this.valueMethods.length; ++index) {
+			this.slots.put( this.valueMethods[ index], index);
+			final Class< ?> returnType = this.valueMethods[ index].getReturnType();
+			if( returnType.isPrimitive())
+				this.primitiveDefaults[ index] = PrimitiveType.forPrimitiveType( returnType).getDefaultValue();
+		}
+
+		this.constructor = this.getConstructor( this.getGeneratedClass( false), Object[].class);
+	}
+
+	private Constructor< ? extends MODEL> getConstructor( final Class< ?> generated, final Class< ?> valuesType) {
+		try {
+			return generated == null? null: generated.asSubclass( this.model).getConstructor( SimpleAccessor.class, valuesType);
+		} catch( final NoSuchMethodException exception) {
+			throw new AssertionError( exception);
+		}
+	}
+
+	/**
+	 * @return methods that need decoded values, the index of each in the array is its slot
+	 */
+	public Method[] getValueMethods() {
+		return this.valueMethods.clone();
+	}
+
+	/**
+	 * @param method
+	 * @return the index of the method's value in the values array, or -1 if the method does not need a decoded value
+	 */
+	public int getSlot( final Method method) {
+		final Integer slot = this.slots.get( method);
+		return slot == null? -1: slot;
+	}
+
+	public boolean isGenerated() {
+		return this.constructor != null;
+	}
+
+	/**
+	 * Source of the value of each slot, see {@link ModelImplementation#newLazyInstance(SimpleAccessor, ValueSource)}.
+	 */
+	static interface ValueSource {
+
+		public Object get( int slot);
+	}
+
+	/**
+	 * @param accessor
+	 * @param values
+	 *            decoded values, indexed by slots, the array is taken over by the instance
+	 * @return
+	 */
+	public MODEL newInstance( final SimpleAccessor accessor, final Object[] values) {
+		for( int index = 0; index < values.length; ++index)
+			if( values[ index] == null && this.primitiveDefaults[ index] != null)
+				values[ index] = this.primitiveDefaults[ index];
+		if( this.constructor == null)
+			return this.newProxy( accessor, new ValueSource() {
+
+				@ Override
+				public Object get( final int slot) {
+					return values[ slot];
+				}
+			});
+
+		return this.newInstance( this.constructor, accessor, values);
+	}
+
+	private MODEL newInstance( final Constructor< ? extends MODEL> constructor, final SimpleAccessor accessor, final Object values) {
+		try {
+			return constructor.newInstance( accessor, values);
+		} catch( final InvocationTargetException exception) {
+			if( exception.getCause() instanceof RuntimeException)
+				throw ( RuntimeException) exception.getCause();
+			if( exception.getCause() instanceof Error)
+				throw ( Error) exception.getCause();
+			throw new IllegalStateException( exception.getCause());
+		} catch( InstantiationException | IllegalAccessException exception) {
+			throw new IllegalStateException( exception);
+		}
+	}
+
+	/**
+	 * Creates an instance asking {@code values} for the value of a method every time the method is called, so {@code values} is expected
+	 * to memoize them. It is an instance of the lazy variant of the generated class if possible, otherwise a {@link Proxy}.
+	 * 
+	 * @param accessor
+	 * @param values
+	 * @return
+	 */
+	public MODEL newLazyInstance( final SimpleAccessor accessor, final ValueSource values) {
+		final ValueSource defaulted = new ValueSource() {
+
+			@ Override
+			public Object get( final int slot) {
+				final Object value = values.get( slot);
+				return value == null? ModelImplementation.this.primitiveDefaults[ slot]: value;
+			}
+		};
+		final Constructor< ? extends MODEL> constructor = this.getLazyConstructor();
+		if( constructor == null)
+			return this.newProxy( accessor, defaulted);
+
+		return this.newInstance( constructor, accessor, new AbstractList< Object>() {
+
+			@ Override
+			public Object get( final int slot) {
+				return defaulted.get( slot);
+			}
+
+			@ Override
+			public int size() {
+				return ModelImplementation.this.valueMethods.length;
+			}
+		});
+	}
+
+	private Constructor< ? extends MODEL> getLazyConstructor() {
+		if( !this.lazyGenerated)
+			synchronized( this) {
+				if( !this.lazyGenerated) {
+					this.lazyConstructor = this.getConstructor( this.getGeneratedClass( true), List.class);
+					this.lazyGenerated = true;
+				}
+			}
+		return this.lazyConstructor;
+	}
+
+	private MODEL newProxy( final SimpleAccessor accessor, final ValueSource values) {
+		return this.model.cast( Proxy.newProxyInstance( this.model.getClassLoader(), new Class< ?>[]{ this.model}, new InvocationHandler() {
+
+			@ Override
+			public Object invoke( final Object proxy, final Method method, final Object[] args) throws IllegalAccessException,
+					InvocationTargetException {
+				if( SimpleAccessor.class.equals( method.getDeclaringClass()))
+					return method.invoke( accessor, args);
+				final Integer slot = ModelImplementation.this.slots.get( method);
+				return slot == null? null: values.get( slot.intValue());
+			}
+		}));
+	}
+
+	private Class< ?> getGeneratedClass( final boolean lazy) {
+		final Map< Class< ?>, WeakReference< Class< ?>>> classes = lazy? ModelImplementation.GENERATED_LAZY: ModelImplementation.GENERATED;
+		synchronized( classes) {
+			final WeakReference< Class< ?>> reference = classes.get( this.model);
+			Class< ?> generated = reference == null? null: reference.get();
+			if( generated == null && this.isGenerationPossible()) {
+				final String className = this.model.getName() + ( lazy? "$$LazyImplementation": "$$Implementation");
+				final byte[] bytes = ModelClassWriter.write( className, this.model, this.valueMethods, this.accessorMethods, lazy);
+				if( this.isAccessible( true))
+					generated = ModelImplementation.defineInPackage( this.model, bytes);
+				if( generated == null && this.isAccessible( false))
+					try {
+						generated = new Loader( this.model.getClassLoader()).define( className, bytes);
+					} catch( final LinkageError error) {
+						// falling back to a proxy
+					}
+				if( generated != null)
+					classes.put( this.model, new WeakReference< Class< ?>>( generated));
+			}
+			return generated;
+		}
+	}
+
+	private boolean isGenerationPossible() {
+		if( this.model.getName().startsWith( "java."))
+			return false;
+		// methods inherited from more than one interface, possibly with different return types
+		final Set< String> signatures = new HashSet<>();
+		for( final Method method: this.valueMethods)
+			if( !signatures.add( method.getName() + ModelClassWriter.getDescriptor( method).replaceFirst( "\\).*", ")")))
+				return false;
+		return true;
+	}
+
+	/**
+	 * @param fromModelPackage
+	 *            whether the generated class is to be in the runtime package of the model
+	 * @return whether the generated class can access all types it casts to, including the model it implements
+	 */
+	private boolean isAccessible( final boolean fromModelPackage) {
+		if( !this.isAccessible( this.model, fromModelPackage))
+			return false;
+		for( final Method method: this.valueMethods)
+			if( !this.isAccessible( method.getReturnType(), fromModelPackage))
+				return false;
+		return true;
+	}
+
+	private boolean isAccessible( Class< ?> type, final boolean fromModelPackage) {
+		while( type.isArray())
+			type = type.getComponentType();
+		if( type.isPrimitive() || Modifier.isPublic( type.getModifiers()))
+			return true;
+		return fromModelPackage && type.getClassLoader() == this.model.getClassLoader()
+				&& ModelImplementation.getPackageName( type).equals( ModelImplementation.getPackageName( this.model));
+	}
+
+	private static String getPackageName( final Class< ?> type) {
+		final int index = type.getName().lastIndexOf( '.');
+		return index < 0? "": type.getName().substring( 0, index);
+	}
+
+	/**
+	 * Defines the class in the package of the model, with {@code MethodHandles.Lookup.defineClass}, which is only available since Java 9.
+	 * 
+	 * @param model
+	 * @param bytes
+	 * @return null if not supported by the runtime
+	 */
+	private static Class< ?> defineInPackage( final Class< ?> model, final byte[] bytes) {
+		try {
+			final Object lookup =
+					MethodHandles.class.getMethod( "privateLookupIn", Class.class, MethodHandles.Lookup.class).invoke( null, model,
+							MethodHandles.lookup());
+			return ( Class< ?>) MethodHandles.Lookup.class.getMethod( "defineClass", byte[].class).invoke( lookup, bytes);
+		} catch( final NoSuchMethodException exception) {
+			return null;
+		} catch( IllegalAccessException | InvocationTargetException exception) {
+			return null;
+		}
+	}
+
+	private static class Loader extends ClassLoader {
+
+		public Loader( final ClassLoader parent) {
+			super( parent);
+		}
+
+		public Class< ?> define( final String className, final byte[] bytes) {
+			return this.defineClass( className, bytes, 0, bytes.length);
+		}
+
+		@ Override
+		protected Class< ?> findClass( final String name) throws ClassNotFoundException {
+			// SimpleAccessor might not be visible to the loader of the model
+			return Class.forName( name, false, ModelImplementation.class.getClassLoader());
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+/**
+ * Capabilities of {@link Decoder}s to decode values of primitive types without creating wrapper objects. Decoders of primitive types
+ * implement these, so that arrays of the types can be filled directly.
+ * 
+ * @author Bagana
+ */
+interface PrimitiveDecoder {
+
+	static interface OfBoolean {
+
+		public boolean decodeBoolean( String string) throws DecoderException;
+	}
+
+	static interface OfByte {
+
+		public byte decodeByte( String string) throws DecoderException;
+	}
+
+	static interface OfShort {
+
+		public short decodeShort( String string) throws DecoderException;
+	}
+
+	static interface OfInt {
+
+		public int decodeInt( String string) throws DecoderException;
+	}
+
+	static interface OfLong {
+
+		public long decodeLong( String string) throws DecoderException;
+	}
+
+	static interface OfFloat {
+
+		public float decodeFloat( String string) throws DecoderException;
+	}
+
+	static interface OfDouble {
+
+		public double decodeDouble( String string) throws DecoderException;
+	}
+
+	static interface OfChar {
+
+		public char decodeChar( String string) throws DecoderException;
+	}
+}
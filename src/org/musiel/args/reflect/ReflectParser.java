@@ -12,23 +12,24 @@
  */
 package org.musiel.args.reflect;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.musiel.args.AbstractParser;
 import org.musiel.args.AbstractResult;
 import org.musiel.args.ArgumentException;
 import org.musiel.args.ArgumentPolicy;
 import org.musiel.args.Option;
+import org.musiel.args.ParseMetrics;
 import org.musiel.args.Result;
 import org.musiel.args.SimpleAccessor;
 import org.musiel.args.SimpleAccessorImpl;
@@ -42,32 +43,166 @@ public class ReflectParser< MODEL> extends AbstractParser< Result< MODEL>> {
 		this( new GnuSyntax(), resultType);
 	}
 
-	private final Class< MODEL> model;
-	private final Map< Method, MethodHandler> methodHandlers = new HashMap<>();
+	/**
+	 * Everything about a model that does not depend on the syntax: method handlers (with their decoders and checked default values), the
+	 * implementation, the compiled operand pattern, and the annotations on the model. Attached to the model class, thus shared by all its
+	 * parsers, and unloaded together with it.
+	 */
+	private static final class Metadata< MODEL> {
+
+		private final ModelImplementation< MODEL> implementation;
+		private final MethodHandler[] methodHandlers;
+		private final List< OptionHandler> optionHandlers = new LinkedList<>();
+		private final org.musiel.args.operand.OperandPattern operandPattern;
+		private final Map< String, String> operandDescriptions = new LinkedHashMap<>();
+		private final String resourceBundleBase;
+		private final String description;
+		private final Set< String> environmentVariableNames = new HashSet<>();
+
+		// created on demand by parse(Class, String...), it can be shared as nobody else has access to its syntax
+		private volatile ReflectParser< MODEL> defaultParser = null;
+
+		private Metadata( final Class< MODEL> model) {
+			if( !model.isInterface())
+				throw new IllegalArgumentException( model.getName() + " is not an interface");
+			this.implementation = new ModelImplementation<>( model);
+			this.methodHandlers = new MethodHandler[ this.implementation.getValueMethods().length];
+
+			if( model.isAnnotationPresent( OperandPattern.class)) {
+				final OperandPattern annotation = model.getAnnotation( OperandPattern.class);
+				this.operandPattern = AbstractParser.compileOperandPattern( annotation.value());
+				for( final OperandDescription description: annotation.descriptions())
+					this.operandDescriptions.put( description.name(), description.description());
+			} else
+				this.operandPattern = null;
+			this.resourceBundleBase = model.isAnnotationPresent( Resource.class)? model.getAnnotation( Resource.class).value(): null;
+			this.description = model.isAnnotationPresent( Description.class)? model.getAnnotation( Description.class).value(): null;
+
+			for( final Method method: model.getMethods())
+				if( !SimpleAccessor.class.equals( method.getDeclaringClass()))
+					if( method.isAnnotationPresent( Operands.class))
+						this.methodHandlers[ this.implementation.getSlot( method)] =
+								new OperandHandler( method, this.operandPattern == null? null: this.operandPattern.getNames());
+					else {
+						final OptionHandler handler = new OptionHandler( method);
+						this.methodHandlers[ this.implementation.getSlot( method)] = handler;
+						this.optionHandlers.add( handler);
+					}
+			for( final MethodHandler handler: this.methodHandlers)
+				if( handler.getEnvironmentVariableName() != null)
+					this.environmentVariableNames.add( handler.getEnvironmentVariableName());
+		}
+
+		private ReflectParser< MODEL> getDefaultParser( final Class< MODEL> model) {
+			ReflectParser< MODEL> parser = this.defaultParser;
+			if( parser == null)
+				this.defaultParser = parser = new ReflectParser<>( model);
+			return parser;
+		}
+	}
+
+	private static final ClassValue< Metadata< ?>> METADATA = new ClassValue< Metadata< ?>>() {
+
+		@ Override
+		protected Metadata< ?> computeValue( final Class< ?> model) {
+			return new Metadata<>( model);
+		}
+	};
+
+	@ SuppressWarnings( "unchecked")
+	private static < MODEL>Metadata< MODEL> getMetadata( final Class< MODEL> model) {
+		return ( Metadata< MODEL>) ReflectParser.METADATA.get( model);
+	}
+
+	private final Metadata< MODEL> metadata;
 
 	public ReflectParser( final Syntax syntax, final Class< MODEL> model) {
 		super( syntax);
+		this.metadata = ReflectParser.getMetadata( model);
+
+		if( this.metadata.operandPattern != null) {
+			this.setCompiledOperandPattern( this.metadata.operandPattern);
+			for( final Entry< String, String> description: this.metadata.operandDescriptions.entrySet())
+				this.setOperandDescription( description.getKey(), description.getValue());
+		}
+		if( this.metadata.resourceBundleBase != null)
+			this.setResourceBundleBase( this.metadata.resourceBundleBase);
+		if( this.metadata.description != null)
+			this.setDescription( this.metadata.description);
+
+		for( final OptionHandler handler: this.metadata.optionHandlers)
+			handler.register( this);
+	}
 
-		if( !model.isInterface())
-			throw new IllegalArgumentException( model.getName() + " is not an interface");
-		this.model = model;
+	private volatile boolean lazyDecoding = false;
 
-		if( model.isAnnotationPresent( OperandPattern.class)) {
-			final OperandPattern annotation = model.getAnnotation( OperandPattern.class);
-			this.setOperandPattern( annotation.value());
-			for( final OperandDescription description: annotation.descriptions())
-				this.setOperandDescription( description.name(), description.description());
+	public boolean isLazyDecoding() {
+		return this.lazyDecoding;
+	}
+
+	/**
+	 * If set, the value of each model method is decoded when the method is called for the first time, instead of during parsing. It makes
+	 * parsing cheaper for large models of which most methods are not called. Errors found by decoding are still reported by
+	 * {@link Result#getErrors()} and the {@code check} methods, which decode all methods not decoded yet, and only then to the
+	 * {@link #setMetrics(ParseMetrics) metrics}.
+	 * 
+	 * @param lazyDecoding
+	 * @return
+	 */
+	public ReflectParser< MODEL> setLazyDecoding( final boolean lazyDecoding) {
+		this.lazyDecoding = lazyDecoding;
+		this.settingsChanged();
+		return this;
+	}
+
+	private volatile Environment environment = Environment.system();
+
+	public Environment getEnvironment() {
+		return this.environment;
+	}
+
+	/**
+	 * Sets where the values of {@link EnvironmentVariable environment variables} come from, {@link Environment#system()} by default. The
+	 * variables declared by the model are read once per parse, or only here if the environment is already a snapshot, e.g. one created
+	 * by {@link Environment#of(java.util.Map)}.
+	 * 
+	 * @param environment
+	 * @return
+	 */
+	public ReflectParser< MODEL> setEnvironment( final Environment environment) {
+		if( environment == null)
+			throw new NullPointerException();
+		this.environment = environment;
+		this.settingsChanged();
+		return this;
+	}
+
+	/**
+	 * Captures the current values of the environment variables declared by the model, and uses them for all subsequent parses.
+	 * 
+	 * @return
+	 */
+	public ReflectParser< MODEL> snapshotEnvironment() {
+		this.environment = this.environment.snapshot( this.metadata.environmentVariableNames);
+		this.settingsChanged();
+		return this;
+	}
+
+	private static final class ReflectSettings extends Settings {
+
+		private final boolean lazyDecoding;
+		private final Environment environment;
+
+		private ReflectSettings( final ReflectParser< ?> parser) {
+			super( parser);
+			this.lazyDecoding = parser.lazyDecoding;
+			this.environment = parser.environment;
 		}
-		if( model.isAnnotationPresent( Resource.class))
-			this.setResourceBundleBase( model.getAnnotation( Resource.class).value());
-		if( model.isAnnotationPresent( Description.class))
-			this.setDescription( model.getAnnotation( Description.class).value());
+	}
 
-		for( final Method method: model.getMethods())
-			if( !SimpleAccessor.class.equals( method.getDeclaringClass()))
-				this.methodHandlers.put( method,
-						method.isAnnotationPresent( Operands.class)? new OperandHandler( method, this.getOperandNames()): new OptionHandler(
-								method, this));
+	@ Override
+	protected Settings newSettings() {
+		return new ReflectSettings( this);
 	}
 
 	@ Override
@@ -79,32 +214,61 @@ public class ReflectParser< MODEL> extends AbstractParser< Result< MODEL>> {
 	@ Override
 	protected Result< MODEL> buildResult( final SyntaxResult syntaxResult, final Map< String, List< String>> operands,
 			final Collection< ? extends ArgumentException> parseTimeExceptions) {
-		final Collection< ArgumentException> exceptions = new LinkedHashSet<>( parseTimeExceptions);
+		return this.buildResult( this.getSettings(), syntaxResult, operands, parseTimeExceptions);
+	}
+
+	@ Override
+	protected Result< MODEL> buildResult( final Settings settings, final SyntaxResult syntaxResult,
+			final Map< String, List< String>> operands, final Collection< ? extends ArgumentException> parseTimeExceptions) {
+		final ReflectSettings reflectSettings = ( ReflectSettings) settings;
 		final SimpleAccessorImpl simpleAccessor = new SimpleAccessorImpl( syntaxResult, operands);
+		final Environment environment = reflectSettings.environment.snapshot( this.metadata.environmentVariableNames);
+		if( reflectSettings.lazyDecoding)
+			return LazyResult.create( parseTimeExceptions, simpleAccessor, environment, settings.isStackTraceEnabled(),
+					settings.getMetrics(), this.metadata.methodHandlers, this.metadata.implementation);
 
-		final Map< Method, Object> decoded = new HashMap<>();
-		for( final Entry< Method, MethodHandler> methodHandlerPair: this.methodHandlers.entrySet())
-			if( !SimpleAccessor.class.equals( methodHandlerPair.getKey().getDeclaringClass()))
-				decoded.put( methodHandlerPair.getKey(),
-						methodHandlerPair.getValue().decode( simpleAccessor, new ExceptionHandler< DecoderException>() {
-
-							@ Override
-							public void handle( final DecoderException exception) {
-								exceptions.add( exception);
-							}
-						}));
-
-		return new AbstractResult< MODEL>( Collections.unmodifiableCollection( exceptions), this.model.cast( Proxy.newProxyInstance(
-				this.model.getClassLoader(), new Class< ?>[]{ this.model}, new InvocationHandler() {
-
-					@ Override
-					public Object invoke( final Object proxy, final Method method, final Object[] args) throws IllegalAccessException,
-							InvocationTargetException {
-						if( SimpleAccessor.class.equals( method.getDeclaringClass()))
-							return method.invoke( simpleAccessor, args);
-						return decoded.get( method);
-					}
-				})));
+		final Collection< ArgumentException> exceptions = new LinkedHashSet<>( parseTimeExceptions);
+		final DecoderException[] failure = { null};
+
+		final ExceptionHandler< DecoderException> exceptionHandler = new ExceptionHandler< DecoderException>() {
+
+			@ Override
+			public void handle( final DecoderException exception) {
+				if( failure[ 0] == null && settings.isFailFast( exception))
+					failure[ 0] = exception;
+				exceptions.add( exception);
+			}
+		};
+		final MethodHandler[] methodHandlers = this.metadata.methodHandlers;
+		final Object[] values = new Object[ methodHandlers.length];
+		for( int slot = 0; slot < values.length; ++slot) {
+			values[ slot] = methodHandlers[ slot].decode( simpleAccessor, environment, settings.isStackTraceEnabled(), exceptionHandler);
+			if( failure[ 0] != null)
+				return this.buildFailedResult( syntaxResult, failure[ 0]);
+		}
+
+		return new AbstractResult< MODEL>( Collections.unmodifiableCollection( exceptions), this.metadata.implementation.newInstance(
+				simpleAccessor, values));
+	}
+
+	/**
+	 * Errors found by decoding a lazy result are reported when it decodes all values, see {@link #setLazyDecoding(boolean)}.
+	 */
+	@ Override
+	protected Collection< ? extends ArgumentException> getKnownErrors( final Result< MODEL> result) {
+		return result instanceof LazyResult? ( ( LazyResult< MODEL>) result).getParseTimeErrors(): result.getErrors();
+	}
+
+	/**
+	 * Nothing is decoded for a failed parse: all methods of the model return <code>null</code>, zero or <code>false</code>, while those of
+	 * {@link SimpleAccessor} work as usual, telling what was found before the error.
+	 */
+	@ Override
+	protected Result< MODEL> buildFailedResult( final SyntaxResult syntaxResult, final ArgumentException error) {
+		final SimpleAccessorImpl simpleAccessor =
+				new SimpleAccessorImpl( syntaxResult, Collections.< String, List< String>>emptyMap());
+		return new AbstractResult< MODEL>( Collections.singletonList( error), this.metadata.implementation.newInstance( simpleAccessor,
+				new Object[ this.metadata.methodHandlers.length]));
 	}
 
 	public static < MODEL>Result< MODEL> parse( final Syntax syntax, final Class< MODEL> resultType, final String... args) {
@@ -112,6 +276,6 @@ public class ReflectParser< MODEL> extends AbstractParser< Result< MODEL>> {
 	}
 
 	public static < MODEL>Result< MODEL> parse( final Class< MODEL> resultType, final String... args) {
-		return new ReflectParser< MODEL>( resultType).parse( args);
+		return ReflectParser.getMetadata( resultType).getDefaultParser( resultType).parse( args);
 	}
 }
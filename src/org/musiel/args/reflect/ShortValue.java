@@ -17,7 +17,6 @@ import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.math.BigInteger;
 
 @ Retention( RetentionPolicy.RUNTIME)
 @ Target( ElementType.METHOD)
@@ -31,7 +30,7 @@ public @ interface ShortValue {
 
 	public String max() default "" + Short.MAX_VALUE;
 
-	static class Decoder extends IntegerNumberDecoder< Short> {
+	static class Decoder extends IntegerNumberDecoder< Short> implements PrimitiveDecoder.OfShort {
 
 		public Decoder( final int radix, final String min, final String max) {
 			super( radix, min, max);
@@ -46,8 +45,13 @@ public @ interface ShortValue {
 		}
 
 		@ Override
-		protected Short cast( final BigInteger decoded) {
-			return Short.valueOf( decoded.shortValue());
+		public Short decode( final String string) throws DecoderException {
+			return Short.valueOf( this.decodeShort( string));
+		}
+
+		@ Override
+		public short decodeShort( final String string) throws DecoderException {
+			return ( short) this.decodePrimitive( string);
 		}
 	}
 }
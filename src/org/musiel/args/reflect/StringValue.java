@@ -42,7 +42,7 @@ public @ interface StringValue {
 		@ Override
 		public String decode( final String string) throws DecoderException {
 			if( !this.pattern.matcher( string).matches())
-				throw new DecoderException( StringValue.class.getPackage().getName() + ".exceptions", "constraint",
+				throw new DecoderException( false, StringValue.class.getPackage().getName() + ".exceptions", "constraint",
 						"value does not match regular expression " + this.pattern, string);
 			return string;
 		}
@@ -33,7 +33,8 @@ public @ interface UrlValue {
 			try {
 				return new URL( string);
 			} catch( final MalformedURLException exception) {
-				throw new DecoderException( UrlValue.class.getPackage().getName() + ".exceptions", "constraint", "mulformed URL", string);
+				throw new DecoderException( false, UrlValue.class.getPackage().getName() + ".exceptions", "constraint", "mulformed URL",
+						string);
 			}
 		}
 	}
@@ -18,7 +18,7 @@ abstract class ValueConstructor {
 
 	private final boolean expectsMany;
 	private final boolean dependsOnContent;
-	private final Decoder< ?> decoder;
+	protected final Decoder< ?> decoder;
 	private final Object defaultValue;
 
 	public ValueConstructor( final boolean expectsMany, final boolean dependsOnContent, final Decoder< ?> decoder,
@@ -38,11 +38,11 @@ abstract class ValueConstructor {
 		return this.dependsOnContent;
 	}
 
-	public abstract Object decode( ExceptionHandler< ? super DecoderException> exceptionHandler, String overrideDefaultValue,
-			String environmentVariableName, String... stringValues);
+	public abstract Object decode( ExceptionHandler< ? super DecoderException> exceptionHandler, DecodedDefault overrideDefaultValue,
+			Environment environment, String environmentVariableName, String... stringValues);
 
-	protected Object decodeSingle( final String overrideDefaultValue, final String environmentVariableName, final String value,
-			final ExceptionHandler< ? super DecoderException> exceptionHandler) {
+	protected Object decodeSingle( final DecodedDefault overrideDefaultValue, final Environment environment,
+			final String environmentVariableName, final String value, final ExceptionHandler< ? super DecoderException> exceptionHandler) {
 		if( value != null)
 			try {
 				return this.decoder.decode( value);
@@ -50,24 +50,66 @@ abstract class ValueConstructor {
 				exceptionHandler.handle( exception);
 				return this.defaultValue;
 			}
-		final String envVarValue = environmentVariableName == null? null: System.getenv( environmentVariableName);
+		final String envVarValue = environmentVariableName == null || environment == null? null: environment.get( environmentVariableName);
 		if( envVarValue != null)
 			try {
 				return this.decoder.decode( envVarValue);
 			} catch( final DecoderException exception) {
-				exceptionHandler.handle( new DecoderException( exception, ValueConstructor.class.getPackage().getName() + ".exceptions",
-						"illegal-value.from-env-var", environmentVariableName)); // continue decoding with default values
+				exceptionHandler.handle( new DecoderException( false, exception, ValueConstructor.class.getPackage().getName()
+						+ ".exceptions", "illegal-value.from-env-var", environmentVariableName)); // continue decoding with default values
 				return this.defaultValue;
 			}
 		if( overrideDefaultValue != null)
-			try {
-				return this.decoder.decode( overrideDefaultValue);
-			} catch( final DecoderException exception) {
-				exceptionHandler.handle( exception);
-				return this.defaultValue;
-			}
+			return overrideDefaultValue.get( exceptionHandler, this.defaultValue);
 		return this.defaultValue;
 	}
+
+	/**
+	 * @param string
+	 * @return the value of a {@link Default} annotation decoded, or <code>null</code> if the values constructed do not depend on it
+	 */
+	public DecodedDefault decodeDefault( final String string) {
+		return this.decoder == null? null: new DecodedDefault( this.decoder, string);
+	}
+}
+
+/**
+ * A {@link Default} value decoded once when the model is inspected, instead of in every parse. Arrays are copied when handed out, as
+ * they are mutable; other values are assumed immutable, like the ones all built-in decoders create.
+ */
+class DecodedDefault {
+
+	private final Object value;
+	private final DecoderException exception;
+
+	public DecodedDefault( final Decoder< ?> decoder, final String string) {
+		Object value = null;
+		DecoderException exception = null;
+		try {
+			value = decoder.decode( string);
+		} catch( final DecoderException decoderException) {
+			exception = decoderException;
+		}
+		this.value = value;
+		this.exception = exception;
+	}
+
+	public boolean isValid() {
+		return this.exception == null;
+	}
+
+	public Object get( final ExceptionHandler< ? super DecoderException> exceptionHandler, final Object fallback) {
+		if( this.exception != null) {
+			exceptionHandler.handle( this.exception);
+			return fallback;
+		}
+		if( this.value == null || !this.value.getClass().isArray())
+			return this.value;
+		final int length = Array.getLength( this.value);
+		final Object copy = Array.newInstance( this.value.getClass().getComponentType(), length);
+		System.arraycopy( this.value, 0, copy, 0, length);
+		return copy;
+	}
 }
 
 class NullConstructor extends ValueConstructor {
@@ -77,8 +119,8 @@ class NullConstructor extends ValueConstructor {
 	}
 
 	@ Override
-	public Object decode( final ExceptionHandler< ? super DecoderException> exceptionHandler, final String overrideDefaultValue,
-			final String environmentVariableName, final String... stringValues) {
+	public Object decode( final ExceptionHandler< ? super DecoderException> exceptionHandler, final DecodedDefault overrideDefaultValue,
+			final Environment environment, final String environmentVariableName, final String... stringValues) {
 		return null;
 	}
 }
@@ -90,8 +132,8 @@ class ExistenceIndicator extends ValueConstructor {
 	}
 
 	@ Override
-	public Object decode( final ExceptionHandler< ? super DecoderException> exceptionHandler, final String overrideDefaultValue,
-			final String environmentVariableName, final String... stringValues) {
+	public Object decode( final ExceptionHandler< ? super DecoderException> exceptionHandler, final DecodedDefault overrideDefaultValue,
+			final Environment environment, final String environmentVariableName, final String... stringValues) {
 		return Boolean.valueOf( stringValues.length > 0);
 	}
 }
@@ -103,10 +145,10 @@ class ObjectConstructor extends ValueConstructor {
 	}
 
 	@ Override
-	public Object decode( final ExceptionHandler< ? super DecoderException> exceptionHandler, final String overrideDefaultValue,
-			final String environmentVariableName, final String... stringValues) {
-		return this.decodeSingle( overrideDefaultValue, environmentVariableName, stringValues.length < 1? null: stringValues[ 0],
-				exceptionHandler);
+	public Object decode( final ExceptionHandler< ? super DecoderException> exceptionHandler, final DecodedDefault overrideDefaultValue,
+			final Environment environment, final String environmentVariableName, final String... stringValues) {
+		return this.decodeSingle( overrideDefaultValue, environment, environmentVariableName,
+				stringValues.length < 1? null: stringValues[ 0], exceptionHandler);
 	}
 }
 
@@ -120,12 +162,274 @@ class ArrayConstructor extends ValueConstructor {
 	}
 
 	@ Override
-	public Object decode( final ExceptionHandler< ? super DecoderException> exceptionHandler, final String overrideDefaultValue,
-			final String environmentVariableName, final String... stringValues) {
+	public Object decode( final ExceptionHandler< ? super DecoderException> exceptionHandler, final DecodedDefault overrideDefaultValue,
+			final Environment environment, final String environmentVariableName, final String... stringValues) {
 		final Object array = Array.newInstance( this.componentType, stringValues.length);
 		for( int index = 0; index < stringValues.length; ++index)
 			Array.set( array, index,
-					this.decodeSingle( overrideDefaultValue, environmentVariableName, stringValues[ index], exceptionHandler));
+					this.decodeSingle( overrideDefaultValue, environment, environmentVariableName, stringValues[ index], exceptionHandler));
 		return array;
 	}
 }
+
+/**
+ * Constructs arrays of a primitive type, writing decoded values directly into the array, without reflection. No wrapper objects are
+ * created if the decoder is a {@link PrimitiveDecoder} of the type.
+ */
+abstract class PrimitiveArrayConstructor extends ValueConstructor {
+
+	protected PrimitiveArrayConstructor( final Decoder< ?> decoder, final Object defaultValue) {
+		super( true, true, decoder, defaultValue);
+	}
+
+	public static PrimitiveArrayConstructor of( final Class< ?> componentType, final Decoder< ?> decoder) {
+		if( boolean.class.equals( componentType))
+			return new BooleanArrayConstructor( decoder);
+		if( byte.class.equals( componentType))
+			return new ByteArrayConstructor( decoder);
+		if( short.class.equals( componentType))
+			return new ShortArrayConstructor( decoder);
+		if( int.class.equals( componentType))
+			return new IntArrayConstructor( decoder);
+		if( long.class.equals( componentType))
+			return new LongArrayConstructor( decoder);
+		if( float.class.equals( componentType))
+			return new FloatArrayConstructor( decoder);
+		if( double.class.equals( componentType))
+			return new DoubleArrayConstructor( decoder);
+		if( char.class.equals( componentType))
+			return new CharArrayConstructor( decoder);
+		throw new IllegalArgumentException( "not a primitive type (void excluded): " + componentType);
+	}
+
+	@ Override
+	public Object decode( final ExceptionHandler< ? super DecoderException> exceptionHandler, final DecodedDefault overrideDefaultValue,
+			final Environment environment, final String environmentVariableName, final String... stringValues) {
+		final Object array = this.newArray( stringValues.length);
+		for( int index = 0; index < stringValues.length; ++index)
+			if( stringValues[ index] == null) // no argument given, the value comes from elsewhere
+				this.set( array, index,
+						this.decodeSingle( overrideDefaultValue, environment, environmentVariableName, null, exceptionHandler));
+			else
+				try {
+					this.decode( array, index, stringValues[ index]);
+				} catch( final DecoderException exception) {
+					exceptionHandler.handle( exception); // the element keeps the default value, the zero value of the type
+				}
+		return array;
+	}
+
+	protected abstract Object newArray( int length);
+
+	protected abstract void set( Object array, int index, Object value);
+
+	protected abstract void decode( Object array, int index, String value) throws DecoderException;
+}
+
+class BooleanArrayConstructor extends PrimitiveArrayConstructor {
+
+	private final PrimitiveDecoder.OfBoolean primitiveDecoder;
+
+	public BooleanArrayConstructor( final Decoder< ?> decoder) {
+		super( decoder, false);
+		this.primitiveDecoder = decoder instanceof PrimitiveDecoder.OfBoolean? ( PrimitiveDecoder.OfBoolean) decoder: null;
+	}
+
+	@ Override
+	protected Object newArray( final int length) {
+		return new boolean[ length];
+	}
+
+	@ Override
+	protected void set( final Object array, final int index, final Object value) {
+		( ( boolean[]) array)[ index] = ( Boolean) value;
+	}
+
+	@ Override
+	protected void decode( final Object array, final int index, final String value) throws DecoderException {
+		( ( boolean[]) array)[ index] =
+				this.primitiveDecoder != null? this.primitiveDecoder.decodeBoolean( value): ( Boolean) this.decoder.decode( value);
+	}
+}
+
+class ByteArrayConstructor extends PrimitiveArrayConstructor {
+
+	private final PrimitiveDecoder.OfByte primitiveDecoder;
+
+	public ByteArrayConstructor( final Decoder< ?> decoder) {
+		super( decoder, ( byte) 0);
+		this.primitiveDecoder = decoder instanceof PrimitiveDecoder.OfByte? ( PrimitiveDecoder.OfByte) decoder: null;
+	}
+
+	@ Override
+	protected Object newArray( final int length) {
+		return new byte[ length];
+	}
+
+	@ Override
+	protected void set( final Object array, final int index, final Object value) {
+		( ( byte[]) array)[ index] = ( Byte) value;
+	}
+
+	@ Override
+	protected void decode( final Object array, final int index, final String value) throws DecoderException {
+		( ( byte[]) array)[ index] =
+				this.primitiveDecoder != null? this.primitiveDecoder.decodeByte( value): ( Byte) this.decoder.decode( value);
+	}
+}
+
+class ShortArrayConstructor extends PrimitiveArrayConstructor {
+
+	private final PrimitiveDecoder.OfShort primitiveDecoder;
+
+	public ShortArrayConstructor( final Decoder< ?> decoder) {
+		super( decoder, ( short) 0);
+		this.primitiveDecoder = decoder instanceof PrimitiveDecoder.OfShort? ( PrimitiveDecoder.OfShort) decoder: null;
+	}
+
+	@ Override
+	protected Object newArray( final int length) {
+		return new short[ length];
+	}
+
+	@ Override
+	protected void set( final Object array, final int index, final Object value) {
+		( ( short[]) array)[ index] = ( Short) value;
+	}
+
+	@ Override
+	protected void decode( final Object array, final int index, final String value) throws DecoderException {
+		( ( short[]) array)[ index] =
+				this.primitiveDecoder != null? this.primitiveDecoder.decodeShort( value): ( Short) this.decoder.decode( value);
+	}
+}
+
+class IntArrayConstructor extends PrimitiveArrayConstructor {
+
+	private final PrimitiveDecoder.OfInt primitiveDecoder;
+
+	public IntArrayConstructor( final Decoder< ?> decoder) {
+		super( decoder, 0);
+		this.primitiveDecoder = decoder instanceof PrimitiveDecoder.OfInt? ( PrimitiveDecoder.OfInt) decoder: null;
+	}
+
+	@ Override
+	protected Object newArray( final int length) {
+		return new int[ length];
+	}
+
+	@ Override
+	protected void set( final Object array, final int index, final Object value) {
+		( ( int[]) array)[ index] = ( Integer) value;
+	}
+
+	@ Override
+	protected void decode( final Object array, final int index, final String value) throws DecoderException {
+		( ( int[]) array)[ index] =
+				this.primitiveDecoder != null? this.primitiveDecoder.decodeInt( value): ( Integer) this.decoder.decode( value);
+	}
+}
+
+class LongArrayConstructor extends PrimitiveArrayConstructor {
+
+	private final PrimitiveDecoder.OfLong primitiveDecoder;
+
+	public LongArrayConstructor( final Decoder< ?> decoder) {
+		super( decoder, 0L);
+		this.primitiveDecoder = decoder instanceof PrimitiveDecoder.OfLong? ( PrimitiveDecoder.OfLong) decoder: null;
+	}
+
+	@ Override
+	protected Object newArray( final int length) {
+		return new long[ length];
+	}
+
+	@ Override
+	protected void set( final Object array, final int index, final Object value) {
+		( ( long[]) array)[ index] = ( Long) value;
+	}
+
+	@ Override
+	protected void decode( final Object array, final int index, final String value) throws DecoderException {
+		( ( long[]) array)[ index] =
+				this.primitiveDecoder != null? this.primitiveDecoder.decodeLong( value): ( Long) this.decoder.decode( value);
+	}
+}
+
+class FloatArrayConstructor extends PrimitiveArrayConstructor {
+
+	private final PrimitiveDecoder.OfFloat primitiveDecoder;
+
+	public FloatArrayConstructor( final Decoder< ?> decoder) {
+		super( decoder, 0.0F);
+		this.primitiveDecoder = decoder instanceof PrimitiveDecoder.OfFloat? ( PrimitiveDecoder.OfFloat) decoder: null;
+	}
+
+	@ Override
+	protected Object newArray( final int length) {
+		return new float[ length];
+	}
+
+	@ Override
+	protected void set( final Object array, final int index, final Object value) {
+		( ( float[]) array)[ index] = ( Float) value;
+	}
+
+	@ Override
+	protected void decode( final Object array, final int index, final String value) throws DecoderException {
+		( ( float[]) array)[ index] =
+				this.primitiveDecoder != null? this.primitiveDecoder.decodeFloat( value): ( Float) this.decoder.decode( value);
+	}
+}
+
+class DoubleArrayConstructor extends PrimitiveArrayConstructor {
+
+	private final PrimitiveDecoder.OfDouble primitiveDecoder;
+
+	public DoubleArrayConstructor( final Decoder< ?> decoder) {
+		super( decoder, 0.0D);
+		this.primitiveDecoder = decoder instanceof PrimitiveDecoder.OfDouble? ( PrimitiveDecoder.OfDouble) decoder: null;
+	}
+
+	@ Override
+	protected Object newArray( final int length) {
+		return new double[ length];
+	}
+
+	@ Override
+	protected void set( final Object array, final int index, final Object value) {
+		( ( double[]) array)[ index] = ( Double) value;
+	}
+
+	@ Override
+	protected void decode( final Object array, final int index, final String value) throws DecoderException {
+		( ( double[]) array)[ index] =
+				this.primitiveDecoder != null? this.primitiveDecoder.decodeDouble( value): ( Double) this.decoder.decode( value);
+	}
+}
+
+class CharArrayConstructor extends PrimitiveArrayConstructor {
+
+	private final PrimitiveDecoder.OfChar primitiveDecoder;
+
+	public CharArrayConstructor( final Decoder< ?> decoder) {
+		super( decoder, ( char) 0);
+		this.primitiveDecoder = decoder instanceof PrimitiveDecoder.OfChar? ( PrimitiveDecoder.OfChar) decoder: null;
+	}
+
+	@ Override
+	protected Object newArray( final int length) {
+		return new char[ length];
+	}
+
+	@ Override
+	protected void set( final Object array, final int index, final Object value) {
+		( ( char[]) array)[ index] = ( Character) value;
+	}
+
+	@ Override
+	protected void decode( final Object array, final int index, final String value) throws DecoderException {
+		( ( char[]) array)[ index] =
+				this.primitiveDecoder != null? this.primitiveDecoder.decodeChar( value): ( Character) this.decoder.decode( value);
+	}
+}
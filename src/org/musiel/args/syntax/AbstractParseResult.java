@@ -12,16 +12,12 @@
  */
 package org.musiel.args.syntax;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-import java.util.TreeMap;
 
 import org.musiel.args.ArgumentException;
 import org.musiel.args.Option;
@@ -29,55 +25,233 @@ import org.musiel.args.syntax.Syntax.SyntaxResult;
 
 public abstract class AbstractParseResult implements SyntaxResult {
 
-	protected final LinkedList< ArgumentException> errors = new LinkedList<>();
+	// null if everything is reported to the listener instead of being collected
+	private final LinkedList< ArgumentException> errors;
 
 	@ Override
 	public Collection< ? extends ArgumentException> getErrors() {
-		return Collections.unmodifiableCollection( this.errors);
+		return this.errors == null? Collections.< ArgumentException>emptyList(): Collections.unmodifiableCollection( this.errors);
 	}
 
-	private final Set< Option> options;
-	protected final Map< String, Option> optionDictionary = new TreeMap<>();
-	protected List< String> operands = new LinkedList<>();
+	protected final OptionTable optionTable;
+	private final SealableList< String> operands;
 
-	protected AbstractParseResult( final Set< Option> options) {
-		this.options = options;
-		for( final Option option: this.options)
-			for( final String name: option.getNames())
-				if( this.optionDictionary.containsKey( name))
-					throw new IllegalArgumentException( "duplicate name: " + name);
-				else
-					this.optionDictionary.put( name, option);
+	// occurrences of known options, indexed by option id. unknown options are rare, and kept by name in the maps below.
+	// all these lists are sealed in place by build( ), options never occurred get empty lists there
+	private final SealableList< String>[] optionNames;
+	private final SealableList< String>[] optionArguments;
+	private Map< String, SealableList< String>> unknownOptionNames = null;
+	private Map< String, SealableList< String>> unknownOptionArguments = null;
+
+	// when reporting to a listener, only numbers of occurrences are kept, and the names of a non-repeatable option are collected (in
+	// optionNames) once it occurs for the second time, for the error to be reported in build( )
+	private final Syntax.Listener listener;
+	private final int[] occurrences;
+	private final String[] firstNames;
+	private boolean operandFound = false;
+
+	protected AbstractParseResult( final OptionTable optionTable) {
+		this( optionTable, null);
+	}
+
+	/**
+	 * @param optionTable
+	 * @param listener
+	 *            if not null, options, operands and errors are reported to it as they are found, and nothing is collected
+	 */
+	@ SuppressWarnings( { "unchecked", "rawtypes"})
+	protected AbstractParseResult( final OptionTable optionTable, final Syntax.Listener listener) {
+		this.optionTable = optionTable;
+		this.listener = listener;
+		this.optionNames = new SealableList[ optionTable.size()];
+		if( listener == null) {
+			this.errors = new LinkedList<>();
+			this.operands = new SealableList<>();
+			this.optionArguments = new SealableList[ optionTable.size()];
+			this.occurrences = null;
+			this.firstNames = null;
+		} else {
+			this.errors = null;
+			this.operands = null;
+			this.optionArguments = null;
+			this.occurrences = new int[ optionTable.size()];
+			this.firstNames = new String[ optionTable.size()];
+		}
+	}
+
+	private static final SealableList< String> NO_OCCURRENCE = new SealableList<>();
+	static {
+		AbstractParseResult.NO_OCCURRENCE.seal();
+	}
+
+	// errors of these types stop the parse, keeping only the error, if not null
+	private Collection< Class< ? extends ArgumentException>> failFastTypes = null;
+	private boolean stopped = false;
+	private boolean stackTraceEnabled = true;
+
+	/**
+	 * Makes the parse stop at the first error of any of the specified types, which is then the only error kept. Not available when
+	 * reporting to a listener.
+	 * 
+	 * @param failFastTypes
+	 */
+	protected void setFailFastTypes( final Collection< Class< ? extends ArgumentException>> failFastTypes) {
+		if( this.listener != null && failFastTypes != null)
+			throw new IllegalStateException( "fail-fast parsing is not available with a listener");
+		this.failFastTypes = failFastTypes;
 	}
 
-	private String getCanonicalName( final String optionName) {
-		return this.optionDictionary.containsKey( optionName)? this.optionDictionary.get( optionName).getName(): optionName;
+	/**
+	 * Makes errors added from now on fill in their stack traces or not. Not available when reporting to a listener.
+	 * 
+	 * @param stackTraceEnabled
+	 */
+	protected void setStackTraceEnabled( final boolean stackTraceEnabled) {
+		if( this.listener != null && !stackTraceEnabled)
+			throw new IllegalStateException( "stack traces cannot be disabled with a listener");
+		this.stackTraceEnabled = stackTraceEnabled;
+	}
+
+	/**
+	 * @return whether errors created for this parse should fill in their stack traces
+	 */
+	protected boolean isStackTraceEnabled() {
+		return this.stackTraceEnabled;
+	}
+
+	/**
+	 * @return whether the parse has stopped at an error, so that remaining arguments should be ignored
+	 */
+	protected boolean isStopped() {
+		return this.stopped;
+	}
+
+	/**
+	 * Forgets everything found, so that this object can be used for another parse, keeping the lists allocated for the occurrences of
+	 * options. Only available when collecting a result, which becomes invalid.
+	 */
+	protected void reset() {
+		if( this.listener != null)
+			throw new IllegalStateException( "a parse reporting to a listener cannot be reset");
+		this.errors.clear();
+		this.operands.reset();
+		for( int optionId = 0; optionId < this.optionNames.length; ++optionId)
+			if( this.optionNames[ optionId] == AbstractParseResult.NO_OCCURRENCE) {
+				this.optionNames[ optionId] = null;
+				this.optionArguments[ optionId] = null;
+			} else if( this.optionNames[ optionId] != null) {
+				this.optionNames[ optionId].reset();
+				this.optionArguments[ optionId].reset();
+			}
+		this.unknownOptionNames = null;
+		this.unknownOptionArguments = null;
+		this.stopped = false;
+	}
+
+	protected void addError( final ArgumentException error) {
+		if( this.stopped)
+			return;
+		if( this.listener != null) {
+			this.listener.onError( error);
+			return;
+		}
+		if( this.failFastTypes != null)
+			for( final Class< ? extends ArgumentException> type: this.failFastTypes)
+				if( type.isInstance( error)) {
+					this.errors.clear();
+					this.stopped = true;
+					break;
+				}
+		this.errors.add( error);
 	}
 
-	private final Map< String, List< String>> optionNames = new TreeMap<>();
-	private final Map< String, List< String>> optionArguments = new TreeMap<>();
+	protected void addOperand( final String operand) {
+		if( this.listener != null) {
+			this.operandFound = true;
+			this.listener.onOperand( operand);
+		} else
+			this.operands.add( operand);
+	}
 
-	private List< String> initializeAndGet( final Map< String, List< String>> map, final String optionName) {
-		final String canonicalName = this.getCanonicalName( optionName);
-		List< String> list = map.get( canonicalName);
-		if( list == null)
-			map.put( canonicalName, list = new LinkedList<>());
-		return list;
+	protected boolean isOperandFound() {
+		return this.listener != null? this.operandFound: !this.operands.isEmpty();
 	}
 
 	protected void push( final String optionName, final String optionArgument) {
-		this.initializeAndGet( this.optionNames, optionName).add( optionName);
-		this.initializeAndGet( this.optionArguments, optionName).add( optionArgument);
+		this.push( this.optionTable.getId( optionName), optionName, optionArgument);
+	}
+
+	/**
+	 * Records an occurrence of an option, whose id is already known (-1 for an unknown option).
+	 * 
+	 * @param optionId
+	 * @param optionName
+	 * @param optionArgument
+	 */
+	protected void push( final int optionId, final String optionName, final String optionArgument) {
+		if( this.listener != null) {
+			this.report( optionId, optionName, optionArgument);
+			return;
+		}
+
+		if( optionId >= 0) {
+			if( this.optionNames[ optionId] == null) {
+				this.optionNames[ optionId] = new SealableList<>();
+				this.optionArguments[ optionId] = new SealableList<>();
+			}
+			this.optionNames[ optionId].add( optionName);
+			this.optionArguments[ optionId].add( optionArgument);
+			return;
+		}
+
+		if( this.unknownOptionNames == null) {
+			this.unknownOptionNames = new HashMap<>();
+			this.unknownOptionArguments = new HashMap<>();
+		}
+		SealableList< String> names = this.unknownOptionNames.get( optionName);
+		if( names == null) {
+			this.unknownOptionNames.put( optionName, names = new SealableList<>());
+			this.unknownOptionArguments.put( optionName, new SealableList< String>());
+		}
+		names.add( optionName);
+		this.unknownOptionArguments.get( optionName).add( optionArgument);
+	}
+
+	private void report( final int optionId, final String optionName, final String optionArgument) {
+		final Option option = optionId < 0? null: this.optionTable.getOption( optionId);
+		this.listener.onOption( option, optionName, optionArgument);
+		if( option == null)
+			return;
+
+		if( ++this.occurrences[ optionId] == 1)
+			this.firstNames[ optionId] = optionName;
+		else if( !option.isRepeatable()) {
+			if( this.optionNames[ optionId] == null) {
+				this.optionNames[ optionId] = new SealableList<>();
+				this.optionNames[ optionId].add( this.firstNames[ optionId]);
+			}
+			this.optionNames[ optionId].add( optionName);
+		}
+		if( !option.getArgumentPolicy().isAccepted() && optionArgument != null)
+			this.listener.onError( new UnexpectedArgumentException( optionName));
+		if( option.getArgumentPolicy().isRequired() && optionArgument == null)
+			this.listener.onError( new ArgumentRequiredException( optionName));
 	}
 
 	@ Override
 	public List< String> getNames( final String optionName) {
-		return this.optionNames.get( this.getCanonicalName( optionName));
+		final int optionId = this.optionTable.getId( optionName);
+		if( optionId >= 0)
+			return this.optionNames[ optionId];
+		return this.unknownOptionNames == null? null: this.unknownOptionNames.get( optionName);
 	}
 
 	@ Override
 	public List< String> getArguments( final String optionName) {
-		return this.optionArguments.get( this.getCanonicalName( optionName));
+		final int optionId = this.optionTable.getId( optionName);
+		if( optionId >= 0)
+			return this.optionArguments[ optionId];
+		return this.unknownOptionArguments == null? null: this.unknownOptionArguments.get( optionName);
 	}
 
 	@ Override
@@ -86,34 +260,51 @@ public abstract class AbstractParseResult implements SyntaxResult {
 	}
 
 	protected void build() {
+		if( this.listener != null) {
+			for( int optionId = 0; optionId < this.occurrences.length; ++optionId) {
+				final Option option = this.optionTable.getOption( optionId);
+				if( option.isRequired() && this.occurrences[ optionId] == 0)
+					this.listener.onError( new MissingOptionException( option.getName()));
+				if( this.optionNames[ optionId] != null)
+					this.listener.onError( new TooManyOccurrenceException( this.optionNames[ optionId].get( 1), this.optionNames[ optionId]));
+			}
+			return;
+		}
+
 		// freeze lists
-		for( final Entry< String, List< String>> entry: this.optionNames.entrySet())
-			entry.setValue( Collections.unmodifiableList( new ArrayList<>( entry.getValue())));
-		for( final Entry< String, List< String>> entry: this.optionArguments.entrySet())
-			entry.setValue( Collections.unmodifiableList( new ArrayList<>( entry.getValue())));
-		this.operands = Collections.unmodifiableList( new ArrayList<>( this.operands));
-
-		for( final Option option: this.options) {
-			List< String> names = this.optionNames.get( option.getName());
-			List< String> arguments = this.optionArguments.get( option.getName());
-			if( names == null) {
-				this.optionNames.put( option.getName(), names = Collections.< String>emptyList());
-				this.optionArguments.put( option.getName(), arguments = Collections.< String>emptyList());
+		if( this.unknownOptionNames != null) {
+			for( final SealableList< String> list: this.unknownOptionNames.values())
+				list.seal();
+			for( final SealableList< String> list: this.unknownOptionArguments.values())
+				list.seal();
+		}
+		this.operands.seal();
+
+		for( int optionId = 0; optionId < this.optionNames.length; ++optionId) {
+			final Option option = this.optionTable.getOption( optionId);
+			if( this.optionNames[ optionId] == null) {
+				this.optionNames[ optionId] = AbstractParseResult.NO_OCCURRENCE;
+				this.optionArguments[ optionId] = AbstractParseResult.NO_OCCURRENCE;
+			} else {
+				this.optionNames[ optionId].seal();
+				this.optionArguments[ optionId].seal();
 			}
+			final List< String> names = this.optionNames[ optionId];
+			final List< String> arguments = this.optionArguments[ optionId];
 
+			if( this.stopped) // still sealing the lists
+				continue;
 			if( option.isRequired() && names.isEmpty())
-				this.errors.add( new MissingOptionException( option.getName()));
+				this.addError( new MissingOptionException( this.stackTraceEnabled, option.getName()));
 			if( !option.isRepeatable() && names.size() > 1)
-				this.errors.add( new TooManyOccurrenceException( names.get( 1), names));
-			final Iterator< String> nameIterator = names.iterator();
-			final Iterator< String> argumentIterator = arguments.iterator();
-			while( nameIterator.hasNext()) {
-				final String name = nameIterator.next();
-				final String argument = argumentIterator.next();
+				this.addError( new TooManyOccurrenceException( this.stackTraceEnabled, names.get( 1), names));
+			for( int index = 0; index < names.size() && !this.stopped; ++index) {
+				final String name = names.get( index);
+				final String argument = arguments.get( index);
 				if( !option.getArgumentPolicy().isAccepted() && argument != null)
-					this.errors.add( new UnexpectedArgumentException( name));
+					this.addError( new UnexpectedArgumentException( this.stackTraceEnabled, name));
 				if( option.getArgumentPolicy().isRequired() && argument == null)
-					this.errors.add( new ArgumentRequiredException( name));
+					this.addError( new ArgumentRequiredException( this.stackTraceEnabled, name));
 			}
 		}
 	}
@@ -17,7 +17,11 @@ public class AmbiguousOptionNameException extends OptionException {
 	private static final long serialVersionUID = -1006033348922155735L;
 
 	public AmbiguousOptionNameException( final String optionName) {
-		super( optionName, AmbiguousOptionNameException.class.getPackage().getName() + ".exceptions", AmbiguousOptionNameException.class
-				.getSimpleName(), optionName);
+		this( true, optionName);
+	}
+
+	public AmbiguousOptionNameException( final boolean stackTraceEnabled, final String optionName) {
+		super( stackTraceEnabled, optionName, AmbiguousOptionNameException.class.getPackage().getName() + ".exceptions",
+				AmbiguousOptionNameException.class.getSimpleName(), optionName);
 	}
 }
@@ -17,7 +17,11 @@ public class ArgumentRequiredException extends OptionException {
 	private static final long serialVersionUID = -3407545039110045783L;
 
 	public ArgumentRequiredException( final String optionName) {
-		super( optionName, ArgumentRequiredException.class.getPackage().getName() + ".exceptions", ArgumentRequiredException.class
-				.getSimpleName(), optionName);
+		this( true, optionName);
+	}
+
+	public ArgumentRequiredException( final boolean stackTraceEnabled, final String optionName) {
+		super( stackTraceEnabled, optionName, ArgumentRequiredException.class.getPackage().getName() + ".exceptions",
+				ArgumentRequiredException.class.getSimpleName(), optionName);
 	}
 }
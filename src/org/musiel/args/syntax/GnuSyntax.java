@@ -12,8 +12,8 @@
  */
 package org.musiel.args.syntax;
 
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.musiel.args.Option;
@@ -78,6 +78,7 @@ public class GnuSyntax extends PosixSyntax {
 
 	public GnuSyntax setAbbreviationAllowed( final boolean abbreviationAllowed) {
 		this.abbreviationAllowed = abbreviationAllowed;
+		this.configurationChanged();
 		return this;
 	}
 
@@ -98,14 +99,47 @@ public class GnuSyntax extends PosixSyntax {
 	}
 
 	@ Override
-	protected PosixMachine newMachine( final Set< Option> options) {
-		return new GnuMachine( options);
+	protected PosixPlan newPlan( final OptionTable optionTable) {
+		return new GnuPlan( optionTable);
+	}
+
+	/**
+	 * A {@link ParsePlan} of {@link GnuSyntax}, which additionally keeps a prefix tree of the long option names for abbreviation
+	 * resolution.
+	 * 
+	 * @author Bagana
+	 */
+	protected class GnuPlan extends PosixPlan {
+
+		private final PrefixTree longNames;
+		private final boolean abbreviationAllowed = GnuSyntax.this.abbreviationAllowed;
+
+		protected GnuPlan( final OptionTable optionTable) {
+			super( optionTable);
+			final Map< String, Integer> longNames = new HashMap<>();
+			for( final String name: optionTable.getNames())
+				if( name.startsWith( "--"))
+					longNames.put( name, Integer.valueOf( optionTable.getId( name)));
+			this.longNames = new PrefixTree( longNames);
+		}
+
+		public boolean isAbbreviationAllowed() {
+			return this.abbreviationAllowed;
+		}
+	}
+
+	@ Override
+	protected PosixMachine newMachine( final PosixPlan plan, final Listener listener) {
+		return new GnuMachine( ( GnuPlan) plan, listener);
 	}
 
 	protected class GnuMachine extends PosixMachine {
 
-		public GnuMachine( final Set< Option> options) {
-			super( options);
+		private final GnuPlan plan;
+
+		public GnuMachine( final GnuPlan plan, final Listener listener) {
+			super( plan, listener);
+			this.plan = plan;
 		}
 
 		@ Override
@@ -120,38 +154,33 @@ public class GnuSyntax extends PosixSyntax {
 			final int equalPos = arg.indexOf( '=');
 			String optionName = equalPos < 0? arg: arg.substring( 0, equalPos); // "--" is possible here
 			final String argument = equalPos < 0? null: arg.substring( equalPos + 1);
-			if( !this.operands.isEmpty() && !GnuSyntax.this.isLateOptionsAllowed())
-				this.errors.add( new LateOptionException( optionName));
-
-			Option option = this.optionDictionary.get( optionName);
-			if( option == null)
-				if( !GnuSyntax.this.isAbbreviationAllowed())
-					this.errors.add( new UnknownOptionException( optionName));
-				else
-					option = this.optionDictionary.get( optionName = this.findAbbreviatedName( optionName));
+			if( this.isOperandFound() && !this.plan.isLateOptionsAllowed())
+				this.addError( new LateOptionException( this.isStackTraceEnabled(), optionName));
+
+			int optionId = this.optionTable.getId( optionName);
+			if( optionId < 0)
+				if( !this.plan.isAbbreviationAllowed())
+					this.addError( new UnknownOptionException( this.isStackTraceEnabled(), optionName));
+				else {
+					// an exact match has been ruled out above, so all names in the node are longer
+					final PrefixTree.Node candidates = this.plan.longNames.find( optionName);
+					if( candidates == null)
+						this.addError( new UnknownOptionException( this.isStackTraceEnabled(), optionName));
+					else if( candidates.getCount() > 1)
+						this.addError( new AmbiguousOptionNameException( this.isStackTraceEnabled(), optionName));
+					else {
+						optionName = candidates.getFirstName();
+						optionId = candidates.getFirstId();
+					}
+				}
+			final Option option = optionId < 0? null: this.optionTable.getOption( optionId);
 
 			if( argument != null || option != null && !option.getArgumentPolicy().isRequired())
-				this.push( optionName, argument);
+				this.push( optionId, optionName, argument);
 			else {
 				this.openOptionName = optionName;
-				this.openOption = option;
-			}
-		}
-
-		private String findAbbreviatedName( final String optionName) {
-			final Set< String> candidates = new TreeSet<>();
-			for( final String candidate: this.optionDictionary.keySet())
-				if( candidate.startsWith( optionName))
-					candidates.add( candidate);
-			if( candidates.isEmpty()) {
-				this.errors.add( new UnknownOptionException( optionName));
-				return optionName;
-			}
-			if( candidates.size() > 1) {
-				this.errors.add( new AmbiguousOptionNameException( optionName));
-				return optionName;
+				this.openOptionId = optionId;
 			}
-			return candidates.iterator().next();
 		}
 	}
 }
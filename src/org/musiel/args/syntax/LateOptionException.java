@@ -17,7 +17,11 @@ public class LateOptionException extends OptionException {
 	private static final long serialVersionUID = 1191416853153580272L;
 
 	public LateOptionException( final String optionName) {
-		super( optionName, LateOptionException.class.getPackage().getName() + ".exceptions", LateOptionException.class.getSimpleName(),
-				optionName);
+		this( true, optionName);
+	}
+
+	public LateOptionException( final boolean stackTraceEnabled, final String optionName) {
+		super( stackTraceEnabled, optionName, LateOptionException.class.getPackage().getName() + ".exceptions",
+				LateOptionException.class.getSimpleName(), optionName);
 	}
 }
@@ -31,7 +31,12 @@ public class OptionException extends ArgumentException {
 
 	public OptionException( final String optionName, final String messageBundleBase, final String messageKey,
 			final Object... messageParameters) {
-		super( messageBundleBase, messageKey, messageParameters);
+		this( true, optionName, messageBundleBase, messageKey, messageParameters);
+	}
+
+	public OptionException( final boolean stackTraceEnabled, final String optionName, final String messageBundleBase,
+			final String messageKey, final Object... messageParameters) {
+		super( stackTraceEnabled, null, messageBundleBase, messageKey, messageParameters);
 		this.optionName = optionName;
 	}
 }
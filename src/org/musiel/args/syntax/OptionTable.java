@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.syntax;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.musiel.args.Option;
+
+/**
+ * An immutable set of options, each of which is assigned an integer id (0, 1, 2, ... in iteration order of the set given at construction)
+ * that parsing processes use to index their per-option storage. Names are resolved to ids by an open-addressing hash table, which
+ * involves neither tree traversal nor allocation. Built once per {@link Syntax.ParsePlan} and shared by all the parsing processes of it.
+ * 
+ * @author Bagana
+ */
+public class OptionTable {
+
+	private final Set< Option> options;
+	private final Option[] optionsById;
+	private final Set< String> names;
+
+	// open addressing with linear probing, the length is a power of two and at least twice the number of names
+	private final String[] slotNames;
+	private final int[] slotIds;
+
+	public OptionTable( final Set< Option> options) {
+		this.options = Collections.unmodifiableSet( new LinkedHashSet<>( options));
+		this.optionsById = this.options.toArray( new Option[ this.options.size()]);
+
+		final Set< String> names = new LinkedHashSet<>();
+		for( final Option option: this.optionsById)
+			for( final String name: option.getNames())
+				if( !names.add( name))
+					throw new IllegalArgumentException( "duplicate name: " + name);
+		this.names = Collections.unmodifiableSet( names);
+
+		int capacity = 2;
+		while( capacity < names.size() * 2)
+			capacity <<= 1;
+		this.slotNames = new String[ capacity];
+		this.slotIds = new int[ capacity];
+		for( int id = 0; id < this.optionsById.length; ++id)
+			for( final String name: this.optionsById[ id].getNames()) {
+				int slot = OptionTable.hash( name) & capacity - 1;
+				while( this.slotNames[ slot] != null)
+					slot = slot + 1 & capacity - 1;
+				this.slotNames[ slot] = name;
+				this.slotIds[ slot] = id;
+			}
+	}
+
+	private static int hash( final String name) {
+		final int hashCode = name.hashCode();
+		return hashCode ^ hashCode >>> 16;
+	}
+
+	public Set< Option> getOptions() {
+		return this.options;
+	}
+
+	/**
+	 * Returns the number of options, which is also the upper bound (exclusive) of option ids.
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return this.optionsById.length;
+	}
+
+	/**
+	 * Returns the id of the option with the specified name, or -1 if no such option exists.
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public int getId( final String name) {
+		for( int slot = OptionTable.hash( name) & this.slotNames.length - 1;; slot = slot + 1 & this.slotNames.length - 1) {
+			final String slotName = this.slotNames[ slot];
+			if( slotName == null)
+				return -1;
+			if( slotName.equals( name))
+				return this.slotIds[ slot];
+		}
+	}
+
+	/**
+	 * Returns the option with the specified id.
+	 * 
+	 * @param id
+	 * @return
+	 * @throws ArrayIndexOutOfBoundsException if the id is out of range
+	 */
+	public Option getOption( final int id) {
+		return this.optionsById[ id];
+	}
+
+	/**
+	 * Returns the {@link Option} with the specified name, or <code>null</code> if no such option exists.
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public Option getOption( final String name) {
+		final int id = this.getId( name);
+		return id < 0? null: this.optionsById[ id];
+	}
+
+	/**
+	 * Returns all names of all options, as an unmodifiable set.
+	 * 
+	 * @return
+	 */
+	public Set< String> getNames() {
+		return this.names;
+	}
+}
@@ -12,9 +12,12 @@
  */
 package org.musiel.args.syntax;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import org.musiel.args.ArgumentException;
 import org.musiel.args.Option;
 
 /**
@@ -59,6 +62,7 @@ public class PosixSyntax implements Syntax {
 
 	public PosixSyntax setOptionalArgumentsAllowed( final boolean optionalArgumentsAllowed) {
 		this.optionalArgumentsAllowed = optionalArgumentsAllowed;
+		this.configurationChanged();
 		if( optionalArgumentsAllowed)
 			this.setJointArgumentsAllowed( true);
 		return this;
@@ -66,6 +70,7 @@ public class PosixSyntax implements Syntax {
 
 	public PosixSyntax setJointArgumentsAllowed( final boolean jointArgumentAllowed) {
 		this.jointArgumentsAllowed = jointArgumentAllowed;
+		this.configurationChanged();
 		if( !jointArgumentAllowed)
 			this.setOptionalArgumentsAllowed( false);
 		return this;
@@ -79,9 +84,20 @@ public class PosixSyntax implements Syntax {
 
 	public PosixSyntax setLateOptionsAllowed( final boolean lateOptionsAllowed) {
 		this.lateOptionsAllowed = lateOptionsAllowed;
+		this.configurationChanged();
 		return this;
 	}
 
+	// counts the changes of the configuration, written after each, so that a plan reading it first sees the configuration it tells
+	private volatile int configurationVersion = 0;
+
+	/**
+	 * Makes the plans compiled so far {@link ParsePlan#isOutdated() outdated}. Subclasses call it after changing a property of their own.
+	 */
+	protected void configurationChanged() {
+		++this.configurationVersion;
+	}
+
 	@ Override
 	public void validate( final Option option) throws IllegalArgumentException {
 		if( !this.optionalArgumentsAllowed && option.getArgumentPolicy().isAccepted() && !option.getArgumentPolicy().isRequired())
@@ -103,46 +119,180 @@ public class PosixSyntax implements Syntax {
 
 	@ Override
 	public SyntaxResult parse( final Set< Option> options, final String... args) {
-		final PosixMachine machine = this.newMachine( options);
-		for( final String arg: args)
-			machine.feed( arg);
-		machine.build();
-		return machine;
+		return this.compile( options).parse( args);
 	}
 
-	protected PosixMachine newMachine( final Set< Option> options) {
-		return new PosixMachine( options);
+	@ Override
+	public ParsePlan compile( final Set< Option> options) throws IllegalArgumentException {
+		return this.newPlan( new OptionTable( options));
 	}
 
-	protected class PosixMachine extends AbstractParseResult {
+	protected PosixPlan newPlan( final OptionTable optionTable) {
+		return new PosixPlan( optionTable);
+	}
+
+	/**
+	 * A {@link ParsePlan} of {@link PosixSyntax}, with the configuration properties of the syntax as they are when it is compiled.
+	 * 
+	 * @author Bagana
+	 */
+	protected class PosixPlan implements ParsePlan {
+
+		protected final OptionTable optionTable;
+
+		private final int configurationVersion = PosixSyntax.this.configurationVersion;
+		private final boolean jointArgumentsAllowed = PosixSyntax.this.jointArgumentsAllowed;
+		private final boolean lateOptionsAllowed = PosixSyntax.this.lateOptionsAllowed;
 
-		protected PosixMachine( final Set< Option> options) {
-			super( options);
-			for( final Option option: options)
+		// single-character names below 128, indexed by the character after the hyphen. absent ones have id -1 and name null
+		private final int[] shortOptionIds = new int[ 128];
+		private final String[] shortOptionNames = new String[ 128];
+
+		/**
+		 * @param optionTable
+		 * @throws IllegalArgumentException
+		 *             if an option is not supported by the syntax
+		 */
+		protected PosixPlan( final OptionTable optionTable) throws IllegalArgumentException {
+			// validated after the configuration is read, so that a plan is outdated if validated with another one
+			for( final Option option: optionTable.getOptions())
 				PosixSyntax.this.validate( option);
+			this.optionTable = optionTable;
+			Arrays.fill( this.shortOptionIds, -1);
+			for( final String name: optionTable.getNames())
+				if( name.length() == 2 && name.charAt( 0) == '-' && name.charAt( 1) < this.shortOptionIds.length) {
+					this.shortOptionIds[ name.charAt( 1)] = optionTable.getId( name);
+					this.shortOptionNames[ name.charAt( 1)] = name;
+				}
+		}
+
+		@ Override
+		public Set< Option> getOptions() {
+			return this.optionTable.getOptions();
+		}
+
+		@ Override
+		public boolean isOutdated() {
+			return this.configurationVersion != PosixSyntax.this.configurationVersion;
+		}
+
+		public boolean isJointArgumentsAllowed() {
+			return this.jointArgumentsAllowed;
+		}
+
+		public boolean isLateOptionsAllowed() {
+			return this.lateOptionsAllowed;
+		}
+
+		@ Override
+		public SyntaxResult parse( final String... args) {
+			final PosixMachine machine = PosixSyntax.this.newMachine( this, null);
+			for( final String arg: args)
+				machine.feed( arg);
+			machine.build();
+			return machine;
+		}
+
+		@ Override
+		public void parse( final Listener listener, final String... args) {
+			if( listener == null)
+				throw new NullPointerException();
+			final PosixMachine machine = PosixSyntax.this.newMachine( this, listener);
+			for( final String arg: args)
+				machine.feed( arg);
+			machine.build();
+		}
+
+		@ Override
+		public Session begin() {
+			return this.begin( null);
+		}
+
+		@ Override
+		public Session begin( final Collection< Class< ? extends ArgumentException>> failFastTypes) {
+			return this.begin( failFastTypes, true);
+		}
+
+		@ Override
+		public Session begin( final Collection< Class< ? extends ArgumentException>> failFastTypes, final boolean stackTraceEnabled) {
+			final PosixMachine machine = PosixSyntax.this.newMachine( this, null);
+			machine.setFailFastTypes( failFastTypes);
+			machine.setStackTraceEnabled( stackTraceEnabled);
+			return new Session() {
+
+				private boolean finished = false;
+
+				@ Override
+				public void feed( final CharSequence arg) throws IllegalStateException {
+					if( this.finished)
+						throw new IllegalStateException( "session finished");
+					if( !machine.isStopped())
+						machine.feed( arg.toString());
+				}
+
+				@ Override
+				public boolean isStopped() {
+					return machine.isStopped();
+				}
+
+				@ Override
+				public SyntaxResult finish() throws IllegalStateException {
+					if( this.finished)
+						throw new IllegalStateException( "session finished");
+					this.finished = true;
+					machine.build();
+					return machine;
+				}
+
+				@ Override
+				public void reset() {
+					machine.reset();
+					this.finished = false;
+				}
+			};
+		}
+	}
+
+	/**
+	 * @param plan
+	 * @param listener
+	 *            if not null, the machine reports to it instead of collecting a result
+	 * @return
+	 */
+	protected PosixMachine newMachine( final PosixPlan plan, final Listener listener) {
+		return new PosixMachine( plan, listener);
+	}
+
+	protected class PosixMachine extends AbstractParseResult {
+
+		private final PosixPlan plan;
+
+		protected PosixMachine( final PosixPlan plan, final Listener listener) {
+			super( plan.optionTable, listener);
+			this.plan = plan;
 		}
 
 		private boolean optionTerminatedByDoubleHyphen = false;
-		// the name of a found-but-not-pushed option. openOption is null and non-null when the name is unknown and known, respectively.
+		// the name of a found-but-not-pushed option. openOptionId is -1 and the option id when the name is unknown and known, respectively.
 		// if it is a known option, it must require an argument, or it should have been pushed in the first place.
 		// if it is an unknown option, a hyphen-led arg pushes it without argument, other args are considered its argument.
 		protected String openOptionName = null;
-		protected Option openOption = null;
+		protected int openOptionId = -1;
 
 		private void feed( final String arg) {
 			if( this.optionTerminatedByDoubleHyphen) {
-				this.operands.add( arg);
+				this.addOperand( arg);
 				return;
 			}
 
 			if( this.openOptionName != null) {
-				if( this.openOption != null || !arg.startsWith( "-") || arg.equals( "-")) {
-					this.push( this.openOptionName, arg);
+				if( this.openOptionId >= 0 || !arg.startsWith( "-") || arg.equals( "-")) {
+					this.push( this.openOptionId, this.openOptionName, arg);
 					this.openOptionName = null;
-					this.openOption = null;
+					this.openOptionId = -1;
 					return;
 				}
-				this.push( this.openOptionName, null);
+				this.push( this.openOptionId, this.openOptionName, null);
 				this.openOptionName = null;
 			}
 
@@ -152,7 +302,7 @@ public class PosixSyntax implements Syntax {
 			}
 
 			if( !arg.startsWith( "-") || arg.equals( "-")) {
-				this.operands.add( arg);
+				this.addOperand( arg);
 				return;
 			}
 
@@ -161,40 +311,55 @@ public class PosixSyntax implements Syntax {
 
 		// specially prepared for GNU and those support different types of options...
 		protected void handleOption( final String arg) {
-			this.handleShortOption( arg, arg);
-		}
-
-		protected void handleShortOption( final String arg, final String originalWholeArg) {
-			final String optionName = arg.substring( 0, 2); // long enough always
-			final Option option = this.optionDictionary.get( optionName);
-			if( option == null)
-				this.errors.add( new UnknownOptionException( optionName));
-			if( !this.operands.isEmpty() && !PosixSyntax.this.isLateOptionsAllowed())
-				this.errors.add( new LateOptionException( optionName));
-
-			// nothing is following the option name in the same arg
-			if( arg.length() == 2) {
-				if( option == null || option.getArgumentPolicy().isRequired()) {
-					this.openOptionName = optionName;
-					this.openOption = option;
-				} else
-					this.push( optionName, null);
-				return;
-			}
+			this.handleShortOptions( arg);
+		}
 
-			if( option != null && option.getArgumentPolicy().isAccepted() && PosixSyntax.this.isJointArgumentsAllowed()) {
-				this.push( optionName, arg.substring( 2));
-				return;
+		// scans a group of short options like "-abc" by index, a substring is created only for an option-argument joint with its name
+		protected void handleShortOptions( final String arg) {
+			final boolean late = this.isOperandFound() && !this.plan.isLateOptionsAllowed();
+			for( int position = 1; position < arg.length(); ++position) {
+				final char character = arg.charAt( position);
+				final boolean indexed = character < this.plan.shortOptionIds.length;
+				final String optionName =
+						indexed && this.plan.shortOptionNames[ character] != null? this.plan.shortOptionNames[ character]: "-" + character;
+				final int optionId = indexed? this.plan.shortOptionIds[ character]: this.optionTable.getId( optionName);
+				final Option option = optionId < 0? null: this.optionTable.getOption( optionId);
+				if( option == null)
+					this.addError( new UnknownOptionException( this.isStackTraceEnabled(), optionName));
+				if( late)
+					this.addError( new LateOptionException( this.isStackTraceEnabled(), optionName));
+
+				// nothing is following the option name in the same arg
+				if( position == arg.length() - 1) {
+					if( option == null || option.getArgumentPolicy().isRequired()) {
+						this.openOptionName = optionName;
+						this.openOptionId = optionId;
+					} else
+						this.push( optionId, optionName, null);
+					return;
+				}
+
+				if( option != null && option.getArgumentPolicy().isAccepted() && this.plan.isJointArgumentsAllowed()) {
+					this.push( optionId, optionName, arg.substring( position + 1));
+					return;
+				}
+
+				this.push( optionId, optionName, null);
 			}
+		}
 
-			this.push( optionName, null);
-			this.handleShortOption( "-" + arg.substring( 2), originalWholeArg); // tail recursive, although VM's do not optimize
+		@ Override
+		protected void reset() {
+			super.reset();
+			this.optionTerminatedByDoubleHyphen = false;
+			this.openOptionName = null;
+			this.openOptionId = -1;
 		}
 
 		@ Override
 		public void build() {
 			if( this.openOptionName != null)
-				this.push( this.openOptionName, null);
+				this.push( this.openOptionId, this.openOptionName, null);
 			super.build();
 		}
 	}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.syntax;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable compressed prefix tree (radix tree) of option names, resolving an abbreviated name in time proportional to its length.
+ * 
+ * @author Bagana
+ */
+class PrefixTree {
+
+	private final Node root;
+
+	/**
+	 * @param names option names mapped to option ids
+	 */
+	PrefixTree( final Map< String, Integer> names) {
+		final String[] sorted = new TreeMap<>( names).keySet().toArray( new String[ names.size()]);
+		final int[] ids = new int[ sorted.length];
+		for( int index = 0; index < sorted.length; ++index)
+			ids[ index] = names.get( sorted[ index]).intValue();
+		this.root = sorted.length == 0? null: new Node( sorted, ids, 0, sorted.length);
+	}
+
+	/**
+	 * Returns the node of all names starting with {@code prefix}, or <code>null</code> if there is no such name.
+	 * 
+	 * @param prefix
+	 * @return
+	 */
+	Node find( final String prefix) {
+		Node node = this.root;
+		for( int position = 0; node != null; node = node.getChild( prefix.charAt( position))) {
+			for( final int limit = Math.min( prefix.length(), node.end); position < limit; ++position)
+				if( prefix.charAt( position) != node.key.charAt( position))
+					return null;
+			if( position == prefix.length())
+				return node;
+		}
+		return null;
+	}
+
+	/**
+	 * A set of names sharing a common prefix, which is the first {@link #end} characters of {@link #key}.
+	 */
+	static class Node {
+
+		private final String key;
+		private final int end;
+		private final int count;
+		private final int firstId;
+
+		private final char[] labels;
+		private final Node[] children;
+
+		// all names in sorted[ from, to) have the same prefix, which is at least as long as the prefix of the parent node
+		private Node( final String[] sorted, final int[] ids, int from, final int to) {
+			this.key = sorted[ from];
+			this.count = to - from;
+			this.firstId = ids[ from];
+
+			// in sorted names, the common prefix of the first and the last is common to all
+			final String last = sorted[ to - 1];
+			int end = 0;
+			while( end < this.key.length() && end < last.length() && this.key.charAt( end) == last.charAt( end))
+				++end;
+			this.end = end;
+
+			// a name equal to the common prefix sorts first, and has no child node
+			if( this.key.length() == end)
+				++from;
+			final char[] labels = new char[ to - from];
+			final Node[] children = new Node[ to - from];
+			int size = 0;
+			for( int groupFrom = from, groupTo; groupFrom < to; groupFrom = groupTo) {
+				final char label = sorted[ groupFrom].charAt( end);
+				for( groupTo = groupFrom + 1; groupTo < to && sorted[ groupTo].charAt( end) == label; ++groupTo) {
+				}
+				labels[ size] = label;
+				children[ size++] = new Node( sorted, ids, groupFrom, groupTo);
+			}
+			this.labels = Arrays.copyOf( labels, size);
+			this.children = Arrays.copyOf( children, size);
+		}
+
+		private Node getChild( final char label) {
+			final int index = Arrays.binarySearch( this.labels, label);
+			return index < 0? null: this.children[ index];
+		}
+
+		/**
+		 * Returns the number of names in this node.
+		 * 
+		 * @return
+		 */
+		int getCount() {
+			return this.count;
+		}
+
+		/**
+		 * Returns the smallest name in this node, which is the only one if {@link #getCount()} returns 1.
+		 * 
+		 * @return
+		 */
+		String getFirstName() {
+			return this.key;
+		}
+
+		/**
+		 * Returns the option id of {@link #getFirstName()}.
+		 * 
+		 * @return
+		 */
+		int getFirstId() {
+			return this.firstId;
+		}
+	}
+}
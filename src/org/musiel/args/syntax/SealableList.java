@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.syntax;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An array-backed list that can only be appended to, until it is sealed by {@link #seal()}, after which it is unmodifiable. Parsing
+ * processes collect occurrences and operands into such lists, and hand them out as they are once sealed, without copying or wrapping.
+ * 
+ * @author Bagana
+ * 
+ * @param <E>
+ */
+public final class SealableList< E> extends AbstractList< E> implements RandomAccess {
+
+	private static final Object[] EMPTY = new Object[ 0];
+
+	private Object[] elements = SealableList.EMPTY;
+	private int size = 0;
+	private boolean sealed = false;
+
+	@ Override
+	public boolean add( final E element) {
+		if( this.sealed)
+			throw new UnsupportedOperationException();
+		if( this.size == this.elements.length)
+			this.elements = Arrays.copyOf( this.elements, Math.max( 4, this.size * 2));
+		this.elements[ this.size++] = element;
+		++this.modCount;
+		return true;
+	}
+
+	@ Override
+	@ SuppressWarnings( "unchecked")
+	public E get( final int index) {
+		if( index < 0 || index >= this.size)
+			throw new IndexOutOfBoundsException( String.valueOf( index));
+		return ( E) this.elements[ index];
+	}
+
+	@ Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Makes this list unmodifiable. Sealing a sealed list has no effect.
+	 */
+	public void seal() {
+		this.sealed = true;
+	}
+
+	public boolean isSealed() {
+		return this.sealed;
+	}
+
+	/**
+	 * Empties this list and makes it modifiable again, keeping its capacity, for a parse reusing it.
+	 */
+	void reset() {
+		Arrays.fill( this.elements, 0, this.size, null);
+		this.size = 0;
+		this.sealed = false;
+		++this.modCount;
+	}
+}
@@ -52,6 +52,171 @@ public interface Syntax {
 	 */
 	public SyntaxResult parse( Set< Option> options, String... args);
 
+	/**
+	 * Validates the options and prepares everything that does not depend on the arguments, so that parsing with the returned
+	 * {@link ParsePlan} is equivalent to, but cheaper than, calling {@link #parse(Set, String...)} with the same options every time.
+	 * 
+	 * <p>
+	 * Later changes to {@code options}, or to the configuration of this syntax, do not affect the returned plan; the latter make it
+	 * {@link ParsePlan#isOutdated() outdated}.
+	 * </p>
+	 * 
+	 * @param options
+	 * @return
+	 * @throws IllegalArgumentException if an option is not supported by this syntax, or an option name is used more than once
+	 */
+	public ParsePlan compile( Set< Option> options) throws IllegalArgumentException;
+
+	/**
+	 * A set of options compiled by {@link Syntax#compile(Set)}.
+	 * 
+	 * <p>
+	 * An implementation must be immutable, so that a plan can be shared by multiple threads and used for any number of parses.
+	 * </p>
+	 * 
+	 * @author Bagana
+	 */
+	public static interface ParsePlan {
+
+		/**
+		 * Returns the options this plan was compiled from, as an unmodifiable set.
+		 * 
+		 * @return
+		 */
+		public Set< Option> getOptions();
+
+		/**
+		 * Tells whether the syntax has been configured differently since this plan was compiled. An outdated plan still parses with the
+		 * configuration it was compiled with, but should be replaced by compiling the options again.
+		 * 
+		 * @return
+		 */
+		public boolean isOutdated();
+
+		/**
+		 * Parses an argument array and returns the result.
+		 * 
+		 * @param args
+		 * @return
+		 */
+		public SyntaxResult parse( String... args);
+
+		/**
+		 * Starts parsing arguments one by one, as they become available. Feeding all arguments of an array to the returned session and
+		 * then finishing it is equivalent to {@link #parse(String...)} with the array.
+		 * 
+		 * @return
+		 */
+		public Session begin();
+
+		/**
+		 * Starts parsing arguments one by one like {@link #begin()}, but stops at the first error of any of the specified types. Once
+		 * stopped, arguments fed are ignored, and the result holds the options and operands found before the error, and that error only.
+		 * 
+		 * @param failFastTypes
+		 *            <code>null</code> to never stop, like {@link #begin()}
+		 * @return
+		 */
+		public Session begin( Collection< Class< ? extends ArgumentException>> failFastTypes);
+
+		/**
+		 * Starts parsing arguments one by one like {@link #begin(Collection)}, creating errors with or without stack traces.
+		 * 
+		 * @param failFastTypes
+		 *            <code>null</code> to never stop
+		 * @param stackTraceEnabled
+		 *            whether the errors fill in their stack traces, which costs more than the rest of creating them
+		 * @return
+		 */
+		public Session begin( Collection< Class< ? extends ArgumentException>> failFastTypes, boolean stackTraceEnabled);
+
+		/**
+		 * Parses an argument array, reporting every option occurrence, operand and error to a listener as soon as it is found, instead of
+		 * collecting them into a {@link SyntaxResult}. Errors that can only be known at the end (like a missing required option) are
+		 * reported last.
+		 * 
+		 * @param listener
+		 * @param args
+		 */
+		public void parse( Listener listener, String... args);
+	}
+
+	/**
+	 * Receives the findings of {@link ParsePlan#parse(Listener, String...)}, in the order they are found.
+	 * 
+	 * @author Bagana
+	 */
+	public static interface Listener {
+
+		/**
+		 * Called for each occurrence of an option.
+		 * 
+		 * @param option
+		 *            <code>null</code> if the option is unknown, which is also reported by {@link #onError(ArgumentException)}
+		 * @param name
+		 *            the name used in this occurrence
+		 * @param argument
+		 *            <code>null</code> if no option-argument is given
+		 */
+		public void onOption( Option option, String name, String argument);
+
+		/**
+		 * Called for each operand.
+		 * 
+		 * @param operand
+		 */
+		public void onOperand( String operand);
+
+		/**
+		 * Called for each error.
+		 * 
+		 * @param error
+		 */
+		public void onError( ArgumentException error);
+	}
+
+	/**
+	 * An ongoing parse started by {@link ParsePlan#begin()}, which consumes arguments as they are fed, without collecting them first.
+	 * 
+	 * <p>
+	 * A session is meant to be used by one thread at a time.
+	 * </p>
+	 * 
+	 * @author Bagana
+	 */
+	public static interface Session {
+
+		/**
+		 * Parses the next argument.
+		 * 
+		 * @param arg
+		 * @throws IllegalStateException
+		 *             if the session is already finished
+		 */
+		public void feed( CharSequence arg) throws IllegalStateException;
+
+		/**
+		 * @return whether the session has stopped at an error, as requested by {@link ParsePlan#begin(Collection)}, so that feeding it
+		 *         more arguments is useless
+		 */
+		public boolean isStopped();
+
+		/**
+		 * Ends the argument list, and returns the result. No more arguments can be fed after that.
+		 * 
+		 * @return
+		 * @throws IllegalStateException
+		 *             if the session is already finished
+		 */
+		public SyntaxResult finish() throws IllegalStateException;
+
+		/**
+		 * Discards everything fed, so that the session can be used for another parse, with the same fail-fast setting. A session
+		 * reused this way allocates little, but the result returned by {@link #finish()} is reused too, and becomes invalid.
+		 */
+		public void reset();
+	}
+
 	/**
 	 * The result of a parsing process.
 	 * 
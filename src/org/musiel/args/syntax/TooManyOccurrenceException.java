@@ -25,8 +25,14 @@ public class TooManyOccurrenceException extends OptionException {
 	private final Collection< String> additionalOptionNames = new HashSet<>();
 
 	public TooManyOccurrenceException( final String optionName, final List< String> additionalOptionNames) {
-		super( optionName, TooManyOccurrenceException.class.getPackage().getName() + ".exceptions", TooManyOccurrenceException.class
-				.getSimpleName(), TooManyOccurrenceException.optionNamesToString( optionName, additionalOptionNames));
+		this( true, optionName, additionalOptionNames);
+	}
+
+	public TooManyOccurrenceException( final boolean stackTraceEnabled, final String optionName,
+			final List< String> additionalOptionNames) {
+		super( stackTraceEnabled, optionName, TooManyOccurrenceException.class.getPackage().getName() + ".exceptions",
+				TooManyOccurrenceException.class.getSimpleName(),
+				TooManyOccurrenceException.optionNamesToString( optionName, additionalOptionNames));
 		this.additionalOptionNames.addAll( additionalOptionNames);
 		this.additionalOptionNames.remove( optionName);
 	}
@@ -17,7 +17,11 @@ public class UnexpectedArgumentException extends OptionException {
 	private static final long serialVersionUID = 2664650578522089550L;
 
 	public UnexpectedArgumentException( final String optionName) {
-		super( optionName, UnexpectedArgumentException.class.getPackage().getName() + ".exceptions", UnexpectedArgumentException.class
-				.getSimpleName(), optionName);
+		this( true, optionName);
+	}
+
+	public UnexpectedArgumentException( final boolean stackTraceEnabled, final String optionName) {
+		super( stackTraceEnabled, optionName, UnexpectedArgumentException.class.getPackage().getName() + ".exceptions",
+				UnexpectedArgumentException.class.getSimpleName(), optionName);
 	}
 }
@@ -17,7 +17,11 @@ public class UnknownOptionException extends OptionException {
 	private static final long serialVersionUID = 4865889399962759213L;
 
 	public UnknownOptionException( final String optionName) {
-		super( optionName, UnknownOptionException.class.getPackage().getName() + ".exceptions",
+		this( true, optionName);
+	}
+
+	public UnknownOptionException( final boolean stackTraceEnabled, final String optionName) {
+		super( stackTraceEnabled, optionName, UnknownOptionException.class.getPackage().getName() + ".exceptions",
 				UnknownOptionException.class.getSimpleName(), optionName);
 	}
 }
@@ -12,11 +12,22 @@
  */
 package org.musiel.args;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.musiel.args.syntax.TooManyOccurrenceException;
+import org.musiel.args.syntax.UnknownOptionException;
 
 public abstract class AbstractParserTest {
 
@@ -58,6 +69,18 @@ public abstract class AbstractParserTest {
 		this.parser.addOption( "-a", ( String[]) null, false, false, ArgumentPolicy.NONE, null, null);
 	}
 
+	@ Test
+	public void session() {
+		final Parser.Session< ? extends Result< ? extends SimpleAccessor>> session = this.parser.begin();
+		for( final String arg: new String[]{ "-a", "file1", "file2"})
+			session.feed( arg);
+		final SimpleAccessor result = session.finish().getAccessor();
+		Assert.assertTrue( result.isOccurred( "--all"));
+		Assert.assertArrayEquals( new String[]{ "file1", "file2"}, result.getOperandsAsArray());
+		this.exceptions.expect( IllegalStateException.class);
+		session.finish();
+	}
+
 	@ Test( expected = ArrayIndexOutOfBoundsException.class)
 	public void outOfRange() {
 		this.parser.parse( new String[]{ "-!!==", "-a", "file1"}, 4);
@@ -75,4 +98,202 @@ public abstract class AbstractParserTest {
 		result = this.parser.parse( new String[]{ "-!!==", "-a", "file1", "wontsee", null}, 1, 2).getAccessor();
 		Assert.assertArrayEquals( new String[]{ "file1"}, result.getOperands().toArray());
 	}
+
+	@ Test
+	public void optionAddedAfterParsing() {
+		Assert.assertFalse( this.parser.parse( "-b").getErrors().isEmpty());
+		this.parser.addOption( "-b", ( String[]) null, false, false, ArgumentPolicy.NONE, null, null);
+		Assert.assertTrue( this.parser.parse( "-b").getErrors().isEmpty());
+		Assert.assertTrue( this.parser.parse( "-a", "-b").getAccessor().isOccurred( "-b"));
+	}
+
+	@ Test
+	public void failFast() {
+		this.parser.setFailFast( true);
+		final Parser.Session< ? extends Result< ? extends SimpleAccessor>> session = this.parser.begin();
+		session.feed( "-x");
+		Assert.assertTrue( session.isStopped());
+		session.feed( "-a");
+		final Result< ? extends SimpleAccessor> result = session.finish();
+		Assert.assertEquals( 1, result.getErrors().size());
+		Assert.assertTrue( result.getErrors().iterator().next() instanceof UnknownOptionException);
+		Assert.assertFalse( result.getAccessor().isOccurred( "-a"));
+		Assert.assertEquals( 1, this.parser.parse( "-x", "-y", "-a", "-a").getErrors().size());
+
+		this.parser.setFailFastTypes( Collections.< Class< ? extends ArgumentException>>singletonList( TooManyOccurrenceException.class));
+		final Collection< ? extends ArgumentException> errors = this.parser.parse( "-y", "-a", "-a", "file").getErrors();
+		Assert.assertEquals( 1, errors.size());
+		Assert.assertTrue( errors.iterator().next() instanceof TooManyOccurrenceException);
+		Assert.assertEquals( 2, this.parser.parse( "-y", "-z").getErrors().size());
+	}
+
+	@ Test
+	public void batch() throws InterruptedException {
+		final List< String[]> argumentVectors = new ArrayList<>();
+		for( int index = 0; index < 1000; ++index)
+			argumentVectors.add( index % 4 == 0? new String[]{ "file" + index, "-x"}: new String[]{ "-a", "file" + index});
+		Assert.assertEquals( "file3", this.parser.parseAll( argumentVectors).get( 3).getAccessor().getOperand());
+
+		final ExecutorService executor = Executors.newFixedThreadPool( 4);
+		try {
+			for( final boolean ordered: new boolean[]{ true, false}) {
+				final List< Long> indices = new ArrayList<>();
+				final AbstractParser.BatchConsumer< Result< ? extends SimpleAccessor>> consumer =
+						new AbstractParser.BatchConsumer< Result< ? extends SimpleAccessor>>() {
+
+							@ Override
+							public void onResult( final long index, final String[] args, final Result< ? extends SimpleAccessor> result) {
+								Assert.assertEquals( "file" + index, result.getAccessor().getOperand());
+								indices.add( index);
+							}
+						};
+				final BatchStatistics statistics = this.parser.parseAll( argumentVectors, executor, ordered, consumer);
+				Assert.assertEquals( 1000, statistics.getCount());
+				Assert.assertEquals( 250, statistics.getErrorCount());
+				if( !ordered)
+					Collections.sort( indices);
+				for( int index = 0; index < 1000; ++index)
+					Assert.assertEquals( Long.valueOf( index), indices.get( index));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@ Test
+	public void batchSettings() throws InterruptedException {
+		final int count = 64 * ( 4 * Runtime.getRuntime().availableProcessors() + 4);
+		final List< String[]> argumentVectors = Collections.nCopies( count, new String[]{ "-x", "-y"});
+		// changing a setting while a batch is in progress does not affect it
+		final Iterable< String[]> changing = new Iterable< String[]>() {
+
+			@ Override
+			public Iterator< String[]> iterator() {
+				final Iterator< String[]> iterator = argumentVectors.iterator();
+				return new Iterator< String[]>() {
+
+					@ Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@ Override
+					public String[] next() {
+						AbstractParserTest.this.parser.setFailFast( true);
+						return iterator.next();
+					}
+
+					@ Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+		for( final Result< ? extends SimpleAccessor> result: this.parser.parseAll( changing))
+			Assert.assertEquals( 2, result.getErrors().size());
+		Assert.assertEquals( 1, this.parser.parse( "-x", "-y").getErrors().size());
+
+		this.parser.setFailFast( false);
+		final ExecutorService executor = Executors.newFixedThreadPool( 4);
+		try {
+			final AbstractParser.BatchConsumer< Result< ? extends SimpleAccessor>> consumer =
+					new AbstractParser.BatchConsumer< Result< ? extends SimpleAccessor>>() {
+
+						@ Override
+						public void onResult( final long index, final String[] args, final Result< ? extends SimpleAccessor> result) {
+							AbstractParserTest.this.parser.setFailFast( true);
+							Assert.assertEquals( 2, result.getErrors().size());
+						}
+					};
+			Assert.assertEquals( count, this.parser.parseAll( argumentVectors, executor, true, consumer).getErrorCount());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@ Test
+	public void stackTraces() {
+		for( final ArgumentException error: this.parser.parse( "-x", "-a", "-a").getErrors())
+			Assert.assertTrue( error.getStackTrace().length > 0);
+		this.parser.setStackTraceEnabled( false);
+		Assert.assertFalse( this.parser.isStackTraceEnabled());
+		final Collection< ? extends ArgumentException> errors = this.parser.parse( "-x", "-a", "-a").getErrors();
+		Assert.assertEquals( 2, errors.size());
+		for( final ArgumentException error: errors)
+			Assert.assertEquals( 0, error.getStackTrace().length);
+		this.parser.setFailFast( true);
+		Assert.assertEquals( 0, this.parser.parse( "-x").getErrors().iterator().next().getStackTrace().length);
+	}
+
+	@ Test
+	public void reuse() {
+		final Parser.Session< ? extends Result< ? extends SimpleAccessor>> session = this.parser.begin();
+		session.feed( "-x");
+		Assert.assertFalse( session.finish().getErrors().isEmpty());
+		session.reset();
+		session.feed( "-a");
+		session.feed( "file1");
+		final Result< ? extends SimpleAccessor> reset = session.finish();
+		Assert.assertTrue( reset.getErrors().isEmpty());
+		Assert.assertTrue( reset.getAccessor().isOccurred( "-a"));
+		Assert.assertEquals( "file1", reset.getAccessor().getOperand());
+
+		Assert.assertFalse( this.parser.parseTransiently( "-x", "-a").getErrors().isEmpty());
+		Result< ? extends SimpleAccessor> result = this.parser.parseTransiently( "file2");
+		Assert.assertTrue( result.getErrors().isEmpty());
+		Assert.assertFalse( result.getAccessor().isOccurred( "-a"));
+		Assert.assertArrayEquals( new String[]{ "file2"}, result.getAccessor().getOperandsAsArray());
+		this.parser.addOption( "-b", ( String[]) null, false, false, ArgumentPolicy.NONE, null, null);
+		result = this.parser.parseTransiently( "-b", "-a", "file3");
+		Assert.assertTrue( result.getErrors().isEmpty());
+		Assert.assertTrue( result.getAccessor().isOccurred( "-b"));
+		Assert.assertArrayEquals( new String[]{ "file3"}, result.getAccessor().getOperandsAsArray());
+	}
+
+	@ Test
+	public void metrics() {
+		final AggregatingParseMetrics metrics = new AggregatingParseMetrics();
+		this.parser.setMetrics( metrics);
+		this.parser.parse( "--all", "-a", "file1");
+		this.parser.parse( "-x");
+		this.parser.parseTransiently( "file1", "file2");
+		final Parser.Session< ? extends Result< ? extends SimpleAccessor>> session = this.parser.begin();
+		session.feed( "-a");
+		session.finish();
+
+		Assert.assertEquals( 4, metrics.getArgumentCounts().getCount());
+		Assert.assertEquals( 7, metrics.getArgumentCounts().getTotal());
+		Assert.assertEquals( 4, metrics.getPhaseTimes( ParseMetrics.Phase.SYNTAX).getCount());
+		Assert.assertEquals( 4, metrics.getPhaseTimes( ParseMetrics.Phase.BUILD).getCount());
+		Assert.assertEquals( Collections.singletonMap( "-a", 3L), metrics.getOptionCounts());
+		Assert.assertEquals( Long.valueOf( 1), metrics.getErrorCounts().get( UnknownOptionException.class));
+
+		this.parser.setMetrics( null);
+		Assert.assertSame( ParseMetrics.NONE, this.parser.getMetrics());
+		this.parser.parse( "-a");
+		Assert.assertEquals( 4, metrics.getArgumentCounts().getCount());
+	}
+
+	private WeakReference< ?> parseTransientlyAndDrop() {
+		final AbstractParser< ? extends Result< ? extends SimpleAccessor>> parser = this.newParser();
+		parser.addOption( "-a", new String[]{ "--all"}, false, false, ArgumentPolicy.NONE, null, null);
+		Assert.assertTrue( parser.parseTransiently( "-a").getAccessor().isOccurred( "-a"));
+		return new WeakReference<>( parser);
+	}
+
+	@ Test
+	public void transientSessionDoesNotKeepParser() throws InterruptedException {
+		final WeakReference< ?> parser = this.parseTransientlyAndDrop();
+		for( int attempt = 0; attempt < 100 && parser.get() != null; ++attempt) {
+			System.gc();
+			Thread.sleep( 10);
+		}
+		Assert.assertNull( parser.get());
+
+		Assert.assertTrue( this.parser.parseTransiently( "-a").getAccessor().isOccurred( "-a"));
+		this.parser.removeTransientSession();
+		this.parser.removeTransientSession();
+		Assert.assertFalse( this.parser.parseTransiently( "file").getAccessor().isOccurred( "-a"));
+	}
 }
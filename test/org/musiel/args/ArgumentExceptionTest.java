@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args;
+
+import java.util.ListResourceBundle;
+import java.util.Locale;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArgumentExceptionTest {
+
+	public static class Messages extends ListResourceBundle {
+
+		@ Override
+		protected Object[][] getContents() {
+			return new Object[][]{ { "message", "{1} and {2}, not {3} or {99999999999}"}};
+		}
+	}
+
+	private static class TestException extends ArgumentException {
+
+		private static final long serialVersionUID = 1L;
+
+		public TestException( final String messageBundleBase, final String messageKey, final Object... messageParameters) {
+			super( messageBundleBase, messageKey, messageParameters);
+		}
+
+		public TestException( final boolean stackTraceEnabled, final String messageBundleBase, final String messageKey) {
+			super( stackTraceEnabled, null, messageBundleBase, messageKey);
+		}
+	}
+
+	@ Test
+	public void messages() {
+		for( int count = 0; count < 2; ++count)
+			Assert.assertEquals( "a and 2, not {3} or {99999999999}",
+					new TestException( Messages.class.getName(), "message", "a", 2).getMessage( Locale.ROOT));
+		Assert.assertEquals( "<" + Messages.class.getName() + ">.missing(a)",
+				new TestException( Messages.class.getName(), "missing", "a").getMessage( Locale.ROOT));
+		Assert.assertEquals( "<missing>.message()", new TestException( "missing", "message").getMessage( Locale.ROOT));
+		ArgumentException.clearMessageCache();
+		Assert.assertEquals( "a and b, not {3} or {99999999999}",
+				new TestException( Messages.class.getName(), "message", "a", "b").getMessage( Locale.ROOT));
+	}
+
+	@ Test
+	public void stackTraces() {
+		Assert.assertTrue( new TestException( null, null).getStackTrace().length > 0);
+		Assert.assertTrue( new TestException( true, null, null).getStackTrace().length > 0);
+		final TestException exception = new TestException( false, null, null);
+		Assert.assertEquals( 0, exception.getStackTrace().length);
+		Assert.assertEquals( 0, exception.fillInStackTrace().getStackTrace().length);
+	}
+}
@@ -12,10 +12,25 @@
  */
 package org.musiel.args;
 
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
 import org.musiel.args.AbstractParser;
 import org.musiel.args.DefaultParser;
+import org.musiel.args.DefaultResult;
 import org.musiel.args.Result;
 import org.musiel.args.SimpleAccessor;
+import org.musiel.args.syntax.GnuSyntax;
 
 public class DefaultParserTest extends AbstractParserTest {
 
@@ -23,4 +38,102 @@ public class DefaultParserTest extends AbstractParserTest {
 	protected AbstractParser< ? extends Result< ? extends SimpleAccessor>> newParser() {
 		return new DefaultParser();
 	}
+
+	/**
+	 * Counts every lookup reaching the bundle, the instance itself being cached by {@link ResourceBundle#getBundle(String)}.
+	 */
+	public static class Resources extends ResourceBundle {
+
+		private static final AtomicInteger LOOKUPS = new AtomicInteger();
+
+		private final Map< String, String> strings = new HashMap<>();
+
+		public Resources() {
+			this.strings.put( "description", "a parser");
+			this.strings.put( "option.--verbose.description", "be verbose");
+			this.strings.put( "option.-v.argument", "LEVEL");
+		}
+
+		@ Override
+		public boolean containsKey( final String key) {
+			Resources.LOOKUPS.incrementAndGet();
+			return this.strings.containsKey( key);
+		}
+
+		@ Override
+		protected Object handleGetObject( final String key) {
+			Resources.LOOKUPS.incrementAndGet();
+			return this.strings.get( key);
+		}
+
+		@ Override
+		public Enumeration< String> getKeys() {
+			return Collections.enumeration( this.strings.keySet());
+		}
+	}
+
+	private static void readResources( final DefaultParser parser, final Option option) {
+		Assert.assertEquals( "a parser", parser.getDescription( Locale.ROOT));
+		Assert.assertEquals( "be verbose", option.getDescription( Locale.ROOT));
+		Assert.assertEquals( "LEVEL", option.getArgumentName( Locale.ROOT));
+		Assert.assertNull( parser.getOperandDescription( "FILE", Locale.ROOT));
+	}
+
+	@ Test
+	public void resources() {
+		final DefaultParser parser = new DefaultParser();
+		parser.setResourceBundleBase( Resources.class.getName());
+		final Option option = parser.addOption( "-v", "--verbose");
+		DefaultParserTest.readResources( parser, option);
+		final int lookups = Resources.LOOKUPS.get();
+		Assert.assertTrue( lookups > 0);
+		for( int count = 0; count < 3; ++count)
+			DefaultParserTest.readResources( parser, option);
+		// hits and misses (e.g. the -v description, tried before --verbose) are all cached
+		Assert.assertEquals( lookups, Resources.LOOKUPS.get());
+
+		parser.clearResourceCache();
+		DefaultParserTest.readResources( parser, option);
+		Assert.assertEquals( 2 * lookups, Resources.LOOKUPS.get());
+		DefaultParserTest.readResources( parser, option);
+		Assert.assertEquals( 2 * lookups, Resources.LOOKUPS.get());
+
+		parser.setResourceBundleBase( "org.musiel.args.missing");
+		Assert.assertNull( parser.getDescription( Locale.ROOT));
+	}
+
+	@ Test
+	public void syntaxChanged() {
+		final GnuSyntax syntax = new GnuSyntax();
+		final DefaultParser parser = new DefaultParser( syntax);
+		parser.addOption( "-a", "--all");
+		Assert.assertTrue( parser.parse( "--al").getErrors().isEmpty());
+		syntax.setAbbreviationAllowed( false);
+		Assert.assertFalse( parser.parse( "--al").getErrors().isEmpty());
+	}
+
+	@ Test
+	public void batchSyntax() throws InterruptedException {
+		final GnuSyntax syntax = new GnuSyntax();
+		final DefaultParser parser = new DefaultParser( syntax);
+		parser.addOption( "-a", "--all");
+		final ExecutorService executor = Executors.newFixedThreadPool( 4);
+		try {
+			// changing the syntax while a batch is in progress does not affect it
+			final AbstractParser.BatchConsumer< DefaultResult> consumer = new AbstractParser.BatchConsumer< DefaultResult>() {
+
+				@ Override
+				public void onResult( final long index, final String[] args, final DefaultResult result) {
+					syntax.setAbbreviationAllowed( false);
+					Assert.assertTrue( result.getErrors().isEmpty());
+				}
+			};
+			final int count = 64 * ( 4 * Runtime.getRuntime().availableProcessors() + 4);
+			final List< String[]> argumentVectors = Collections.nCopies( count, new String[]{ "--al"});
+			Assert.assertEquals( 0, parser.parseAll( argumentVectors, executor, true, consumer).getErrorCount());
+		} finally {
+			executor.shutdown();
+		}
+		Assert.assertFalse( parser.parse( "--al").getErrors().isEmpty());
+	}
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HistogramTest {
+
+	@ Test
+	public void percentiles() {
+		final Histogram histogram = new Histogram();
+		Assert.assertEquals( 0, histogram.getValueAtPercentile( 99));
+		for( long value = 1; value <= 1000; ++value)
+			histogram.record( value);
+		Assert.assertEquals( 1000, histogram.getCount());
+		Assert.assertEquals( 500500, histogram.getTotal());
+		Assert.assertEquals( 500.5, histogram.getMean(), 0);
+		Assert.assertEquals( 1000, histogram.getMax());
+		Assert.assertEquals( 1, histogram.getValueAtPercentile( 0));
+		Assert.assertEquals( 100, histogram.getValueAtPercentile( 10));
+		Assert.assertEquals( 500, histogram.getValueAtPercentile( 50), 500 / 64);
+		Assert.assertEquals( 990, histogram.getValueAtPercentile( 99), 990 / 64);
+		Assert.assertEquals( 1000, histogram.getValueAtPercentile( 100));
+
+		histogram.record( Long.MAX_VALUE);
+		Assert.assertEquals( Long.MAX_VALUE, histogram.getValueAtPercentile( 100));
+		histogram.reset();
+		Assert.assertEquals( 0, histogram.getCount());
+		Assert.assertEquals( 0, histogram.getValueAtPercentile( 100));
+	}
+
+	@ Test( expected = IllegalArgumentException.class)
+	public void negative() {
+		new Histogram().record( -1);
+	}
+}
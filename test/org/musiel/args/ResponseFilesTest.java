@@ -0,0 +1,134 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResponseFilesTest {
+
+	private Path directory;
+
+	@ Before
+	public void setup() throws IOException {
+		this.directory = Files.createTempDirectory( "args");
+	}
+
+	@ After
+	public void cleanup() throws IOException {
+		for( final Path file: Files.newDirectoryStream( this.directory))
+			Files.delete( file);
+		Files.delete( this.directory);
+	}
+
+	private String write( final String name, final String content) throws IOException {
+		return "@" + Files.write( this.directory.resolve( name), content.getBytes( StandardCharsets.UTF_8));
+	}
+
+	private List< Object> expand( final ResponseFiles responseFiles, final String reference) {
+		final List< Object> found = new LinkedList<>();
+		responseFiles.expand( reference, new ResponseFiles.Sink() {
+
+			@ Override
+			public boolean onToken( final String token) {
+				found.add( token);
+				return true;
+			}
+
+			@ Override
+			public boolean onError( final ResponseFileException error) {
+				found.add( error.getReason());
+				return true;
+			}
+		});
+		return found;
+	}
+
+	@ Test
+	public void quoting() throws IOException {
+		final String inner = this.write( "inner", "-x  \"a b\"\n'c \\d'e\\ f \"\" g\\\\");
+		final String outer = this.write( "outer", "first\t" + inner + "\nlast");
+		Assert.assertEquals( Arrays.< Object>asList( "first", "-x", "a b", "c \\de f", "", "g\\", "last"),
+				this.expand( new ResponseFiles(), outer));
+		Assert.assertEquals( Arrays.< Object>asList( "first", ResponseFileException.Reason.TOO_DEEP, "last"),
+				this.expand( new ResponseFiles().setMaxDepth( 1), outer));
+		Assert.assertEquals( Arrays.< Object>asList( ResponseFileException.Reason.UNTERMINATED_QUOTE),
+				this.expand( new ResponseFiles(), this.write( "quote", "'a")));
+		Assert.assertEquals( Arrays.< Object>asList( ResponseFileException.Reason.UNREADABLE),
+				this.expand( new ResponseFiles(), "@" + this.directory.resolve( "missing")));
+	}
+
+	@ Test
+	public void nulDelimited() throws IOException {
+		final StringBuilder content = new StringBuilder();
+		for( int index = 0; index < 5000; ++index) // larger than the buffer
+			content.append( "a b ").append( index).append( '\0');
+		final List< Object> tokens = this.expand( new ResponseFiles().setNulDelimited( true), this.write( "nul", content + "\0last"));
+		Assert.assertEquals( 5002, tokens.size());
+		Assert.assertEquals( "a b 4999", tokens.get( 4999));
+		Assert.assertEquals( "", tokens.get( 5000));
+		Assert.assertEquals( "last", tokens.get( 5001));
+	}
+
+	@ Test
+	public void cycle() throws IOException {
+		final Path file = this.directory.resolve( "self");
+		this.write( "self", "a @" + file + " b");
+		Assert.assertEquals( Arrays.< Object>asList( "a", ResponseFileException.Reason.CYCLE, "b"),
+				this.expand( new ResponseFiles(), "@" + file));
+	}
+
+	@ Test
+	public void parser() throws IOException {
+		final DefaultParser parser = new DefaultParser();
+		parser.addOption( "-a", "--all");
+		final String file = this.write( "args", "-b --all operand1");
+		Assert.assertArrayEquals( new String[]{ file}, parser.parse( file).getAccessor().getOperandsAsArray()); // not expanded by default
+
+		parser.setResponseFiles( new ResponseFiles());
+		Result< ? extends SimpleAccessor> result = parser.parse( file, "operand2");
+		Assert.assertTrue( result.getAccessor().isOccurred( "-a"));
+		Assert.assertArrayEquals( new String[]{ "operand1", "operand2"}, result.getAccessor().getOperandsAsArray());
+		Assert.assertEquals( 1, result.getErrors().size());
+
+		result = parser.parse( "@" + this.directory.resolve( "missing"), "-a");
+		Assert.assertTrue( result.getErrors().iterator().next() instanceof ResponseFileException);
+		Assert.assertTrue( result.getAccessor().isOccurred( "-a"));
+		parser.setFailFast( true);
+		result = parser.parse( "@" + this.directory.resolve( "missing"), "-a");
+		Assert.assertEquals( 1, result.getErrors().size());
+		Assert.assertFalse( result.getAccessor().isOccurred( "-a"));
+
+		// stops reading the including file too
+		final String outer = this.write( "outer", "operand1 @" + this.directory.resolve( "missing") + " -a");
+		result = parser.parse( outer, "operand2");
+		Assert.assertEquals( 1, result.getErrors().size());
+		Assert.assertTrue( result.getErrors().iterator().next() instanceof ResponseFileException);
+		Assert.assertFalse( result.getAccessor().isOccurred( "-a"));
+		Assert.assertArrayEquals( new String[]{ "operand1"}, result.getAccessor().getOperandsAsArray());
+		parser.setFailFast( false);
+		result = parser.parse( outer, "operand2");
+		Assert.assertTrue( result.getAccessor().isOccurred( "-a"));
+		Assert.assertArrayEquals( new String[]{ "operand1", "operand2"}, result.getAccessor().getOperandsAsArray());
+	}
+}
@@ -12,6 +12,7 @@
  */
 package org.musiel.args.operand;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -120,6 +121,14 @@ public class OperandPatternTest {
 			Assert.assertEquals( Reason.TOO_FEW, exception.getReason());
 		}
 
+		try {
+			OperandPattern.compile( OperandPatternTest.PATTERNS[ 2]).match( Arrays.asList( "a"), false);
+			Assert.fail();
+		} catch( final OperandException exception) {
+			Assert.assertEquals( Reason.TOO_FEW, exception.getReason());
+			Assert.assertEquals( 0, exception.getStackTrace().length);
+		}
+
 		Map< String, List< String>> result;
 
 		result = OperandPattern.compile( OperandPatternTest.PATTERNS[ 3]).match( "a", "b", "c", "d");
@@ -141,6 +150,45 @@ public class OperandPatternTest {
 		Assert.assertEquals( this.toList( "e1", "e2"), result.get( "E"));
 	}
 
+	@ Test
+	public void testMatchingLongInput() throws OperandException {
+		final OperandPattern pattern = OperandPattern.compile( "A ( B C )... D");
+		final String[] operands = new String[ 5002];
+		for( int i = 0; i < operands.length; ++i)
+			operands[ i] = String.valueOf( i);
+		final Map< String, List< String>> result = pattern.match( operands);
+		Assert.assertEquals( this.toList( "0"), result.get( "A"));
+		Assert.assertEquals( 2500, result.get( "B").size());
+		Assert.assertEquals( "1", result.get( "B").get( 0));
+		Assert.assertEquals( "4999", result.get( "B").get( 2499));
+		Assert.assertEquals( "5000", result.get( "C").get( 2499));
+		Assert.assertEquals( this.toList( "5001"), result.get( "D"));
+
+		try {
+			pattern.match( "a", "b", "c");
+			Assert.fail();
+		} catch( final OperandException exception) {
+			Assert.assertEquals( Reason.TOO_FEW, exception.getReason());
+		}
+	}
+
+	@ Test
+	public void testAmbiguityExample() {
+		final String[][] example = OperandPattern.compile( "A... B...").findAmbiguityExample();
+		Assert.assertEquals( 3, example[ 0].length);
+		Assert.assertEquals( 3, example[ 1].length);
+		Assert.assertFalse( Arrays.equals( example[ 0], example[ 1]));
+
+		final StringBuilder pattern = new StringBuilder();
+		for( int i = 0; i < 100; ++i)
+			pattern.append( "N").append( i).append( ' ');
+		Assert.assertNull( OperandPattern.compile( pattern.toString() + "[ X Y ]...").findAmbiguityExample());
+		final String[][] longExample = OperandPattern.compile( pattern.toString() + "[ X ] [ X ]").findAmbiguityExample();
+		Assert.assertEquals( 101, longExample[ 0].length);
+		Assert.assertEquals( "N99", longExample[ 1][ 99]);
+		Assert.assertEquals( "X", longExample[ 1][ 100]);
+	}
+
 	private List< String> toList( final String... strings) {
 		final List< String> list = new LinkedList<>();
 		Collections.addAll( list, strings);
@@ -229,6 +277,43 @@ public class OperandPatternTest {
 		Assert.assertFalse( OperandPattern.compile( OperandPatternTest.PATTERNS[ 10]).isEmptyPossible());
 	}
 
+	@ Test
+	public void testLongCycles() throws OperandException {
+		// loops of coprime periods, of which the deterministic chain is as long as the product of the periods
+		final StringBuilder pattern = new StringBuilder();
+		int name = 0;
+		for( final int period: new int[]{ 2, 3, 5, 7, 11, 13}) {
+			pattern.append( pattern.length() == 0? "(": " | (");
+			for( int i = 0; i < period; ++i)
+				pattern.append( " T").append( name++);
+			pattern.append( ")...");
+		}
+		final OperandPattern operandPattern = OperandPattern.compile( pattern.toString());
+		final Map< String, List< String>> result = operandPattern.match( Collections.nCopies( 11 * 11 * 11, "x"));
+		Assert.assertEquals( 0, result.get( "T0").size());
+		Assert.assertEquals( 11 * 11, result.get( "T17").size());
+		Assert.assertEquals( 11 * 11, result.get( "T27").size());
+		Assert.assertEquals( 0, result.get( "T28").size());
+		try {
+			operandPattern.match( Collections.nCopies( 17 * 17, "x"));
+			Assert.fail();
+		} catch( final OperandException exception) {
+			Assert.assertEquals( Reason.TOO_FEW, exception.getReason());
+		}
+		try {
+			operandPattern.match( Collections.nCopies( 2 * 3 * 17, "x"));
+			Assert.fail();
+		} catch( final IllegalStateException exception) {
+			// ambiguous for this length
+		}
+		try {
+			OperandPattern.compile( "A B").match( Collections.nCopies( 1000, "x"));
+			Assert.fail();
+		} catch( final OperandException exception) {
+			Assert.assertEquals( Reason.TOO_MANY, exception.getReason());
+		}
+	}
+
 	// * 0 */"", //
 	// * 1 */" ", //
 	// * 2 */"A B | A C ", //
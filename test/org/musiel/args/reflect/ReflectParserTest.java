@@ -13,13 +13,23 @@
 package org.musiel.args.reflect;
 
 import java.io.File;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.musiel.args.AbstractParser;
 import org.musiel.args.AbstractParserTest;
+import org.musiel.args.AggregatingParseMetrics;
+import org.musiel.args.ArgumentException;
+import org.musiel.args.ArgumentExceptions;
 import org.musiel.args.Result;
 import org.musiel.args.SimpleAccessor;
+import org.musiel.args.syntax.GnuSyntax;
+import org.musiel.args.syntax.UnknownOptionException;
 
 public class ReflectParserTest extends AbstractParserTest {
 
@@ -96,4 +106,312 @@ public class ReflectParserTest extends AbstractParserTest {
 		Assert.assertEquals( new File( "output"), options.outputFile());
 		Assert.assertArrayEquals( new int[]{ 3, 9}, options.index());
 	}
+
+	public static enum Level {
+		LOW, HIGH
+	}
+
+	@ OperandPattern( "INPUT...")
+	public static interface TypedOptions extends SimpleAccessor {
+
+		public int count();
+
+		public long size();
+
+		public boolean force();
+
+		public char separator();
+
+		public double ratio();
+
+		public Level level();
+
+		public long[] offset();
+
+		public void run();
+
+		@ Operands( "INPUT")
+		public String[] inputs();
+	}
+
+	@ Test
+	public void testGeneratedImplementation() {
+		for( final Class< ?> model: new Class< ?>[]{ TypedOptions.class, Options.class}) {
+			final Object accessor = ReflectParser.parse( model, "--size", "3000000000").getAccessor();
+			Assert.assertFalse( Proxy.isProxyClass( accessor.getClass()));
+		}
+
+		final TypedOptions options =
+				ReflectParser.parse( TypedOptions.class, "--count", "3", "--force", "--separator", ",", "--ratio", "0.5", "--level", "HIGH",
+						"--offset", "1", "--offset", "5000000000", "a", "b").getAccessor();
+		Assert.assertEquals( 3, options.count());
+		Assert.assertEquals( 0L, options.size());
+		Assert.assertTrue( options.force());
+		Assert.assertEquals( ',', options.separator());
+		Assert.assertEquals( 0.5, options.ratio(), 0.0);
+		Assert.assertEquals( Level.HIGH, options.level());
+		Assert.assertArrayEquals( new long[]{ 1, 5000000000L}, options.offset());
+		options.run();
+		Assert.assertArrayEquals( new String[]{ "a", "b"}, options.inputs());
+		Assert.assertTrue( options.isOccurred( "--force"));
+		Assert.assertEquals( "3", options.getArgument( "--count"));
+		Assert.assertEquals( 2, options.getOperands().size());
+	}
+
+	public static interface LocaleOptions {
+
+		public int count();
+
+		public boolean verbose();
+
+		public short level();
+
+		public float ratio();
+	}
+
+	@ Test
+	public void testGeneratedImplementationInTurkishLocale() {
+		final Locale locale = Locale.getDefault();
+		Locale.setDefault( new Locale( "tr", "TR"));
+		try {
+			final LocaleOptions options =
+					ReflectParser.parse( LocaleOptions.class, "--count", "3", "--verbose", "--ratio", "0.5").getAccessor();
+			Assert.assertFalse( Proxy.isProxyClass( options.getClass()));
+			Assert.assertEquals( 3, options.count());
+			Assert.assertTrue( options.verbose());
+			Assert.assertEquals( 0, options.level());
+			Assert.assertEquals( 0.5f, options.ratio(), 0.0f);
+		} finally {
+			Locale.setDefault( locale);
+		}
+	}
+
+	@ Test
+	public void testParsersSharingModel() {
+		final ReflectParser< TypedOptions> parser1 = new ReflectParser<>( TypedOptions.class);
+		final ReflectParser< TypedOptions> parser2 = new ReflectParser<>( new GnuSyntax().setAbbreviationAllowed( false), TypedOptions.class);
+		Assert.assertEquals( parser1.getOptions().size(), parser2.getOptions().size());
+		Assert.assertNotNull( parser2.getOption( "--count"));
+		Assert.assertEquals( "INPUT...", parser2.getOperandPattern());
+
+		for( int count = 0; count < 3; ++count) {
+			final TypedOptions options = ReflectParser.parse( TypedOptions.class, "--count", String.valueOf( count), "a").getAccessor();
+			Assert.assertEquals( count, options.count());
+			Assert.assertArrayEquals( new String[]{ "a"}, options.inputs());
+		}
+	}
+
+	@ Test
+	public void testLazyDecoding() {
+		final ReflectParser< TypedOptions> parser = new ReflectParser<>( TypedOptions.class).setLazyDecoding( true);
+		final Result< TypedOptions> result = parser.parse( "--count", "x", "--offset", "7", "--level", "HIGH", "a");
+		final TypedOptions options = result.getAccessor();
+		Assert.assertFalse( Proxy.isProxyClass( options.getClass()));
+		Assert.assertEquals( Level.HIGH, options.level());
+		Assert.assertSame( options.offset(), options.offset());
+		Assert.assertArrayEquals( new long[]{ 7}, options.offset());
+		Assert.assertEquals( 0L, options.size());
+		Assert.assertEquals( 1, result.getErrors().size());
+		Assert.assertEquals( 0, options.count());
+		options.run();
+		Assert.assertTrue( options.isOccurred( "--count"));
+		Assert.assertSame( result.getErrors(), result.getErrors());
+		try {
+			result.check();
+			Assert.fail();
+		} catch( final ArgumentExceptions exception) {
+			Assert.assertEquals( 1, exception.getArgumentExceptions().size());
+		}
+	}
+
+	@ Test
+	public void testStackTraces() {
+		final ReflectParser< TypedOptions> parser = new ReflectParser<>( TypedOptions.class);
+		Assert.assertTrue( parser.parse( "--count", "x").getErrors().iterator().next().getStackTrace().length > 0);
+		parser.setStackTraceEnabled( false);
+		Assert.assertEquals( 0, parser.parse( "--count", "x").getErrors().iterator().next().getStackTrace().length);
+		parser.setLazyDecoding( true);
+		Assert.assertEquals( 0, parser.parse( "--count", "x").getErrors().iterator().next().getStackTrace().length);
+	}
+
+	@ Test
+	public void testMetrics() {
+		final AggregatingParseMetrics metrics = new AggregatingParseMetrics();
+		final ReflectParser< TypedOptions> parser = new ReflectParser<>( TypedOptions.class);
+		parser.setMetrics( metrics);
+		// only the error stopping the parse is in the result, and counted
+		parser.setFailFastTypes( Collections.< Class< ? extends ArgumentException>>singletonList( DecoderException.class));
+		Assert.assertEquals( 1, parser.parse( "-x", "--count", "x", "--size", "y").getErrors().size());
+		Assert.assertEquals( Collections.singletonMap( DecoderException.class, 1L), metrics.getErrorCounts());
+
+		// decoding errors are counted once, when decoding is forced
+		metrics.reset();
+		parser.setFailFastTypes( null);
+		parser.setLazyDecoding( true);
+		final Result< TypedOptions> result = parser.parse( "-x", "--count", "x", "a");
+		Assert.assertEquals( Collections.singletonMap( UnknownOptionException.class, 1L), metrics.getErrorCounts());
+		Assert.assertEquals( 2, result.getErrors().size());
+		Assert.assertEquals( 2, result.getErrors().size());
+		Assert.assertEquals( Long.valueOf( 1), metrics.getErrorCounts().get( DecoderException.class));
+		Assert.assertEquals( Long.valueOf( 1), metrics.getErrorCounts().get( UnknownOptionException.class));
+	}
+
+	public static interface PrimitiveArrays {
+
+		public byte[] bytes();
+
+		public char[] chars();
+
+		public double[] doubles();
+
+		public boolean[] flags();
+	}
+
+	@ Test
+	public void testPrimitiveArrays() {
+		final Result< PrimitiveArrays> result =
+				ReflectParser.parse( PrimitiveArrays.class, "--bytes", "1", "--bytes", "300", "--bytes", "-2", "--chars", "a", "--chars",
+						"b", "--doubles", "1.5", "--flags", "yes", "--flags", "false");
+		final PrimitiveArrays arrays = result.getAccessor();
+		Assert.assertArrayEquals( new byte[]{ 1, 0, -2}, arrays.bytes());
+		Assert.assertArrayEquals( new char[]{ 'a', 'b'}, arrays.chars());
+		Assert.assertArrayEquals( new double[]{ 1.5}, arrays.doubles(), 0.0);
+		Assert.assertEquals( 2, arrays.flags().length);
+		Assert.assertTrue( arrays.flags()[ 0]);
+		Assert.assertFalse( arrays.flags()[ 1]);
+		Assert.assertEquals( 1, result.getErrors().size());
+	}
+
+	@ Test
+	public void testIntegerDecoding() throws DecoderException {
+		final IntegerValue.Decoder decoder = new IntegerValue.Decoder( 16, "-255", "255");
+		final LongValue.Decoder unbounded = new LongValue.Decoder( 10, "", "");
+		for( final String string: new String[]{ "0", "+ff", "-FF", "100", "-100", "x", "", "-", "1" + Long.MAX_VALUE, "\uff11"}) {
+			String expected;
+			try {
+				expected = String.valueOf( decoder.decodeInteger( string));
+			} catch( final DecoderException exception) {
+				expected = exception.getMessage();
+			}
+			try {
+				Assert.assertEquals( expected, String.valueOf( decoder.decode( string)));
+			} catch( final DecoderException exception) {
+				Assert.assertEquals( expected, exception.getMessage());
+			}
+		}
+		Assert.assertEquals( 5L, unbounded.decodeLong( "18446744073709551621")); // truncated as before
+	}
+
+	@ Test
+	public void testLookupDecoders() throws DecoderException {
+		final EnumDecoder< Level> levels = new EnumDecoder<>( Level.class);
+		Assert.assertEquals( Level.HIGH, levels.decode( "HIGH"));
+		try {
+			levels.decode( "high");
+			Assert.fail();
+		} catch( final DecoderException exception) {
+			Assert.assertEquals( "must be one of following values: LOW, HIGH", exception.getMessage());
+		}
+
+		final BooleanValue.Decoder booleans = new BooleanValue.Decoder();
+		Assert.assertTrue( booleans.decodeBoolean( "yEs"));
+		Assert.assertFalse( booleans.decodeBoolean( "False"));
+		try {
+			booleans.decodeBoolean( "y");
+			Assert.fail();
+		} catch( final DecoderException exception) {
+			// expected, only TRUE, YES, FALSE and NO are accepted by default
+		}
+
+		final LookupTable< Integer> table = new LookupTable<>( false, 100);
+		for( int index = 0; index < 100; ++index)
+			Assert.assertNull( table.put( "Key" + index, index));
+		for( int index = 0; index < 100; ++index)
+			Assert.assertEquals( Integer.valueOf( index), table.get( "kEY" + index));
+		Assert.assertNull( table.get( "key100"));
+	}
+
+	public static interface EnvironmentOptions {
+
+		@ EnvironmentVariable( "ARGS_TEST_LEVEL")
+		public Level level();
+
+		@ EnvironmentVariable( "ARGS_TEST_COUNT")
+		@ Default( "1")
+		public int count();
+	}
+
+	@ Test
+	public void testEnvironment() {
+		final Map< String, String> variables = new HashMap<>();
+		variables.put( "ARGS_TEST_LEVEL", "HIGH");
+		final ReflectParser< EnvironmentOptions> parser =
+				new ReflectParser<>( EnvironmentOptions.class).setEnvironment( Environment.of( variables));
+		variables.put( "ARGS_TEST_COUNT", "x"); // not seen, the environment is a copy
+		Assert.assertEquals( Level.HIGH, parser.parse().getAccessor().level());
+		Assert.assertEquals( 1, parser.parse().getAccessor().count());
+		Assert.assertEquals( Level.LOW, parser.parse( "--level", "LOW").getAccessor().level());
+
+		final int[] reads = { 0};
+		parser.setEnvironment( new Environment() {
+
+			@ Override
+			public String get( final String name) {
+				++reads[ 0];
+				return "ARGS_TEST_COUNT".equals( name)? String.valueOf( reads[ 0]): null;
+			}
+		});
+		Assert.assertNull( parser.parse().getAccessor().level());
+		Assert.assertEquals( 2, reads[ 0]); // read once per variable per parse
+		parser.snapshotEnvironment();
+		final int count = parser.parse().getAccessor().count();
+		Assert.assertEquals( count, parser.parse().getAccessor().count());
+		Assert.assertEquals( 4, reads[ 0]);
+	}
+
+	public static class CountingDecoder implements Decoder< int[]> {
+
+		private static int decoded = 0;
+
+		@ Override
+		public int[] decode( final String string) throws DecoderException {
+			++CountingDecoder.decoded;
+			return new int[]{ Integer.parseInt( string)};
+		}
+	}
+
+	public static interface DefaultOptions {
+
+		@ Default( "3")
+		@ DecoderClass( CountingDecoder.class)
+		public int[] mutable();
+
+		@ Default( "")
+		public int invalid();
+	}
+
+	@ Test
+	public void testDecodedDefaults() {
+		final ReflectParser< DefaultOptions> parser = new ReflectParser<>( DefaultOptions.class);
+		final int decoded = CountingDecoder.decoded;
+		final Result< DefaultOptions> result = parser.parse();
+		final DefaultOptions options = result.getAccessor();
+		Assert.assertArrayEquals( new int[]{ 3}, options.mutable());
+		options.mutable()[ 0] = 4;
+		Assert.assertArrayEquals( new int[]{ 3}, parser.parse().getAccessor().mutable());
+		Assert.assertEquals( decoded, CountingDecoder.decoded);
+		Assert.assertEquals( 0, options.invalid());
+		Assert.assertEquals( 1, result.getErrors().size());
+	}
+
+	@ Test
+	public void testFailFast() {
+		final ReflectParser< TypedOptions> parser = new ReflectParser<>( TypedOptions.class);
+		parser.setFailFast( true);
+		final Result< TypedOptions> result = parser.parse( "--size", "3", "--count", "x", "--ratio", "y", "a");
+		Assert.assertEquals( 1, result.getErrors().size());
+		Assert.assertEquals( 0, result.getAccessor().count());
+		Assert.assertEquals( 0L, result.getAccessor().size()); // nothing is decoded
+		Assert.assertEquals( "3", result.getAccessor().getArgument( "--size"));
+	}
 }
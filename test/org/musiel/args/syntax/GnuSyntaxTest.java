@@ -110,6 +110,40 @@ public class GnuSyntaxTest extends PosixAndGnuSyntaxTest {
 				"ambiguous option name: --ignor");
 	}
 
+	@ Test
+	public void testAbbreviationsSharingPrefixes() {
+		final Set< Option> options = new HashSet<>( this.options);
+		for( final String name: new String[]{ "--color", "--colour", "--column", "--col-width", "--compact"})
+			options.add( new TestOption( false, true, ArgumentPolicy.NONE, name));
+		final Syntax.ParsePlan plan = this.syntax.compile( options);
+
+		final SyntaxResult result = plan.parse( "--colu", "--colou", "--col-", "--comp", "--color");
+		Assert.assertTrue( result.getErrors().isEmpty());
+		Assert.assertArrayEquals( new String[]{ "--column"}, result.getNames( "--column").toArray());
+		Assert.assertArrayEquals( new String[]{ "--colour"}, result.getNames( "--colour").toArray());
+		Assert.assertArrayEquals( new String[]{ "--col-width"}, result.getNames( "--col-width").toArray());
+		Assert.assertArrayEquals( new String[]{ "--compact"}, result.getNames( "--compact").toArray());
+		Assert.assertArrayEquals( new String[]{ "--color"}, result.getNames( "--color").toArray());
+
+		this.verifyException( plan.parse( "--colo").getErrors(), "ambiguous option name: --colo");
+		this.verifyException( plan.parse( "--co").getErrors(), "ambiguous option name: --co");
+		this.verifyException( plan.parse( "--colors").getErrors(), "unknown option: --colors");
+		this.verifyException( plan.parse( "--cx").getErrors(), "unknown option: --cx");
+	}
+
+	@ Test
+	public void testPlanConfiguration() {
+		final Set< Option> options = new HashSet<>( this.options);
+		options.add( new TestOption( false, true, ArgumentPolicy.NONE, "--column"));
+		final Syntax.ParsePlan plan = this.syntax.compile( options);
+		Assert.assertFalse( plan.isOutdated());
+
+		( ( GnuSyntax) this.syntax).setAbbreviationAllowed( false);
+		Assert.assertTrue( plan.isOutdated());
+		Assert.assertTrue( plan.parse( "--colu").getErrors().isEmpty());
+		this.verifyException( this.syntax.compile( options).parse( "--colu").getErrors(), "unknown option: --colu");
+	}
+
 	@ Test
 	public void testUnexpectedArgument() {
 		final Set< Option> options = new HashSet<>( this.options);
@@ -12,8 +12,11 @@
  */
 package org.musiel.args.syntax;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Assert;
@@ -209,4 +212,123 @@ public abstract class PosixAndGnuSyntaxTest {
 		Assert.assertArrayEquals( new String[]{ "p1", null, "profile1"}, result.getArguments( "-p").toArray());
 		Assert.assertArrayEquals( new String[]{ "-", "xyz", "-a", "-a"}, result.getOperands().toArray());
 	}
+
+	@ Test
+	public void testCompiledPlan() {
+		final Set< Option> options = new HashSet<>( this.options);
+		final Syntax.ParsePlan plan = this.syntax.compile( options);
+		options.add( new TestOption( "-x"));
+		Assert.assertEquals( this.options, plan.getOptions());
+		for( int round = 0; round < 2; ++round) {
+			final SyntaxResult result = plan.parse( "-a", "-o", "file1", "xyz");
+			Assert.assertTrue( result.getErrors().isEmpty());
+			Assert.assertEquals( 1, result.getNames( "-a").size());
+			Assert.assertArrayEquals( new String[]{ "file1"}, result.getArguments( "-o").toArray());
+			Assert.assertArrayEquals( new String[]{ "xyz"}, result.getOperands().toArray());
+		}
+		this.verifyException( plan.parse( "-x").getErrors(), "unknown option: -x");
+	}
+
+	@ Test
+	public void testSession() {
+		final Syntax.Session session = this.syntax.compile( this.options).begin();
+		session.feed( new StringBuilder( "-a"));
+		session.feed( "-o");
+		session.feed( "file1");
+		session.feed( "xyz");
+		session.feed( "-b");
+		final SyntaxResult result = session.finish();
+		Assert.assertEquals( 1, result.getNames( "-a").size());
+		Assert.assertEquals( 1, result.getNames( "-b").size());
+		Assert.assertArrayEquals( new String[]{ "file1"}, result.getArguments( "-o").toArray());
+		Assert.assertArrayEquals( new String[]{ "xyz"}, result.getOperands().toArray());
+		try {
+			session.feed( "-a");
+			Assert.fail();
+		} catch( final IllegalStateException exception) {
+		}
+	}
+
+	@ Test
+	public void testListener() {
+		final Set< Option> options = new HashSet<>( this.options);
+		options.add( new TestOption( true, false, ArgumentPolicy.NONE, "-r"));
+		final Syntax.ParsePlan plan = this.syntax.setLateOptionsAllowed( true).compile( options);
+		final String[] args = { "-a", "-x", "-o", "file1", "xyz", "-a", "-b", "-o"};
+
+		final List< String> occurrences = new ArrayList<>();
+		final List< String> operands = new ArrayList<>();
+		final Set< String> errors = new HashSet<>();
+		plan.parse( new Syntax.Listener() {
+
+			@ Override
+			public void onOption( final Option option, final String name, final String argument) {
+				Assert.assertEquals( name.equals( "-x"), option == null);
+				occurrences.add( name + "=" + argument);
+			}
+
+			@ Override
+			public void onOperand( final String operand) {
+				operands.add( operand);
+			}
+
+			@ Override
+			public void onError( final ArgumentException error) {
+				errors.add( error.getMessage());
+			}
+		}, args);
+
+		Assert.assertEquals( Arrays.asList( "-a=null", "-x=null", "-o=file1", "-a=null", "-b=null", "-o=null"), occurrences);
+		Assert.assertEquals( Arrays.asList( "xyz"), operands);
+		final Set< String> expectedErrors = new HashSet<>();
+		for( final ArgumentException error: plan.parse( args).getErrors())
+			expectedErrors.add( error.getMessage());
+		Assert.assertEquals( 4, expectedErrors.size()); // unknown -x, -a twice, -o without argument, -r missing
+		Assert.assertEquals( expectedErrors, errors);
+	}
+
+	@ Test
+	public void testAliasesAndUnknownOptions() {
+		final Set< Option> options = new HashSet<>( this.options);
+		options.add( new TestOption( false, true, ArgumentPolicy.NONE, "-v", "-V"));
+		final SyntaxResult result = this.syntax.parse( options, "-v", "-x", "-V", "-x", "-a");
+		Assert.assertArrayEquals( new String[]{ "-v", "-V"}, result.getNames( "-V").toArray());
+		Assert.assertArrayEquals( new String[]{ null, null}, result.getArguments( "-v").toArray());
+		Assert.assertArrayEquals( new String[]{ "-x", "-x"}, result.getNames( "-x").toArray());
+		Assert.assertNull( result.getNames( "-y"));
+		Assert.assertTrue( result.getNames( "-b").isEmpty());
+		this.verifyException( result.getErrors(), "unknown option: -x");
+	}
+
+	@ Test
+	public void testShortOptionGroups() {
+		final Set< Option> options = new HashSet<>( this.options);
+		options.add( new TestOption( false, true, ArgumentPolicy.NONE, "-v"));
+		SyntaxResult result = this.syntax.parse( options, "-axbo", "file1");
+		Assert.assertEquals( 1, result.getNames( "-a").size());
+		Assert.assertEquals( 1, result.getNames( "-b").size());
+		Assert.assertArrayEquals( new String[]{ "file1"}, result.getArguments( "-o").toArray());
+		Assert.assertArrayEquals( new String[]{ null}, result.getArguments( "-x").toArray());
+		Assert.assertEquals( 1, result.getErrors().size());
+		this.verifyException( result.getErrors(), "unknown option: -x");
+
+		final StringBuilder group = new StringBuilder( "-");
+		for( int i = 0; i < 10000; ++i)
+			group.append( 'v');
+		result = this.syntax.parse( options, group.toString());
+		Assert.assertTrue( result.getErrors().isEmpty());
+		Assert.assertEquals( 10000, result.getNames( "-v").size());
+	}
+
+	@ Test
+	public void testResultListsUnmodifiable() {
+		final SyntaxResult result = this.syntax.parse( this.options, "-a", "-o", "file1", "xyz");
+		for( final List< String> list: Arrays.asList( result.getNames( "-a"), result.getArguments( "-o"),
+				result.getNames( "-b"), result.getOperands()))
+			try {
+				list.add( "-a");
+				Assert.fail();
+			} catch( final UnsupportedOperationException exception) {
+			}
+	}
 }